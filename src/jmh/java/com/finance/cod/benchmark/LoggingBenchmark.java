@@ -0,0 +1,95 @@
+package com.finance.cod.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.finance.cod.entity.Product;
+import com.finance.cod.logging.RateLimitedLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the service's INFO logging on the request path, without the appender's I/O.
+ * The appender formats every event it receives, as an encoder would, and discards the text.
+ * Run with -prof gc and compare gc.alloc.rate.norm (bytes per call) between the variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private Logger logger;
+
+    private RateLimitedLogger rateLimitedLogger;
+
+    private Product product;
+
+    private Long id;
+
+    private long formattedChars;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        AppenderBase<ILoggingEvent> formatting = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                formattedChars += event.getFormattedMessage().length();
+            }
+        };
+        formatting.setContext(context);
+        formatting.start();
+        logger = context.getLogger(LoggingBenchmark.class);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(formatting);
+        rateLimitedLogger = new RateLimitedLogger(logger, 20, Duration.ofSeconds(1));
+
+        product = ProductServiceBenchmark.newProduct("benchmark-logging");
+        product.setId(42L);
+        product.setDescription("Long product description. ".repeat(200));
+        id = 42L;
+    }
+
+    // Created products: the whole entity as it was logged before, the entity via toString (which now leaves
+    // out the description), or just the fields worth reading
+
+    @Benchmark
+    public long entityWithDescription() {
+        // What toString produced before description was excluded from it
+        logger.info("Creating product: {} {}", product, product.getDescription());
+        return formattedChars;
+    }
+
+    @Benchmark
+    public long entityToString() {
+        logger.info("Creating product: {}", product);
+        return formattedChars;
+    }
+
+    @Benchmark
+    public long entitySummary() {
+        logger.info("Creating product '{}' in category {}", product.getName(), product.getCategory());
+        return formattedChars;
+    }
+
+    // Reads: every call logged, or at most 20 per second
+
+    @Benchmark
+    public long perRequestInfo() {
+        logger.info("Fetching product with ID: {}", id);
+        return formattedChars;
+    }
+
+    @Benchmark
+    public long perRequestInfoRateLimited() {
+        rateLimitedLogger.info("Fetching product with ID: {}", id);
+        return formattedChars;
+    }
+}
@@ -0,0 +1,35 @@
+package com.finance.cod.benchmark;
+
+import com.finance.cod.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the BigDecimal arithmetic in Product.applyDiscount.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDiscountBenchmark {
+
+    private static final BigDecimal PRICE = new BigDecimal("1499.99");
+
+    private Product product;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        product = ProductServiceBenchmark.newProduct("discounted");
+    }
+
+    @Benchmark
+    public BigDecimal applyDiscount() {
+        // Reset first so the price does not shrink towards zero across invocations
+        product.setPrice(PRICE);
+        return product.applyDiscount(0.10);
+    }
+}
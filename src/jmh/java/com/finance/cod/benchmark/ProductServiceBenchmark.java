@@ -0,0 +1,98 @@
+package com.finance.cod.benchmark;
+
+import com.finance.cod.CodApplication;
+import com.finance.cod.cache.ProductCache;
+import com.finance.cod.dto.ProductUpdate;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import com.finance.cod.service.ProductService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the ProductService write and read paths end to end against the embedded H2 database.
+ * The application context is started once per fork, without the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private ProductService productService;
+
+    private ProductCache productCache;
+
+    private Cache secondLevelCache;
+
+    private Long existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CodApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        productService = context.getBean(ProductService.class);
+        productCache = context.getBean(ProductCache.class);
+        secondLevelCache = context.getBean(EntityManagerFactory.class).getCache();
+        existingId = productService.createProduct(newProduct("benchmark-seed")).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Served by the ProductCache after the first call
+    @Benchmark
+    public Product getProductById() {
+        return productService.getProductById(existingId);
+    }
+
+    // Evicts the product from the ProductCache and Hibernate's second-level cache first, so every call
+    // runs the SELECT against H2; the evictions themselves are cheap map removals
+    @Benchmark
+    public Product getProductByIdUncached() {
+        productCache.evictOnCommit(existingId);
+        secondLevelCache.evict(Product.class, existingId);
+        return productService.getProductById(existingId);
+    }
+
+    @Benchmark
+    public Product createProduct() {
+        return productService.createProduct(newProduct("benchmark-" + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Product updateProduct() {
+        ProductUpdate updates = new ProductUpdate();
+        updates.setPrice(BigDecimal.valueOf(sequence.incrementAndGet() % 1000 + 1));
+        updates.setInStock(true);
+        return productService.updateProduct(existingId, updates);
+    }
+
+    static Product newProduct(String name) {
+        return Product.builder()
+                .name(name)
+                .description("Benchmark product used to measure the service layer")
+                .price(new BigDecimal("49.99"))
+                .inStock(true)
+                .category(ProductCategory.ELECTRONICS)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.finance.cod.cache;
+
+import com.finance.cod.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the Hibernate second-level and query cache counters for the product regions.
+ * Requires hibernate.generate_statistics; all counters stay at zero without it.
+ */
+@Component
+public class HibernateCacheStatistics {
+
+    private final Statistics statistics;
+
+    public HibernateCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * JCache regions do not report their size, so only counters are included.
+     *
+     * @return Hit, miss and put counters of the Product entity region and of the query cache.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("productRegion", region(statistics.getDomainDataRegionStatistics(Product.class.getName())));
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("hits", statistics.getQueryCacheHitCount());
+        queries.put("misses", statistics.getQueryCacheMissCount());
+        queries.put("puts", statistics.getQueryCachePutCount());
+        queries.put("updateTimestampsHits", statistics.getUpdateTimestampsCacheHitCount());
+        queries.put("updateTimestampsPuts", statistics.getUpdateTimestampsCachePutCount());
+        body.put("queryCache", queries);
+        return body;
+    }
+
+    private static Map<String, Object> region(CacheRegionStatistics region) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hits", region.getHitCount());
+        body.put("misses", region.getMissCount());
+        body.put("puts", region.getPutCount());
+        return body;
+    }
+}
@@ -0,0 +1,200 @@
+package com.finance.cod.cache;
+
+import com.finance.cod.entity.Product;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ProductCache is a bounded, in-process read-through cache for single product lookups.
+ * Entries expire after a TTL and the least used ones are evicted once the size limit is reached.
+ * Lookups for missing IDs are cached as well, for a shorter time, so scans for
+ * non-existent products do not keep hitting the database.
+ * Concurrent misses for the same ID are coalesced into a single load (see {@link #get}).
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    // Async so that an in-flight load is an entry other callers can wait on without holding any cache lock
+    private final AsyncCache<Long, Optional<Product>> cache;
+
+    private final LongAdder collapsed = new LongAdder();
+
+    public ProductCache(@Value("${cod.cache.product.max-size:10000}") long maxSize,
+                        @Value("${cod.cache.product.ttl:10m}") Duration ttl,
+                        @Value("${cod.cache.product.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Optional<Product>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<Product> product, long currentTime) {
+                        return product.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<Product> product,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, product, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<Product> product,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached lookup result for the ID, calling the loader on a miss.
+     * The first caller to miss runs the loader on its own thread; callers arriving while it runs
+     * share its result and are counted as collapsed. An eviction during the load discards the result.
+     *
+     * @param id The product ID.
+     * @param loader Loads the product from the database; an empty result is cached as a miss.
+     * @return The product, or empty if it does not exist.
+     */
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        CompletableFuture<Optional<Product>> own = new CompletableFuture<>();
+        CompletableFuture<Optional<Product>> entry = cache.get(id, (key, executor) -> own);
+        if (entry != own) {
+            if (!entry.isDone()) {
+                collapsed.increment();
+            }
+            return SingleFlight.join(entry);
+        }
+        try {
+            Optional<Product> product = loader.apply(id);
+            own.complete(product);
+            return product;
+        } catch (RuntimeException | Error e) {
+            // Failed loads are dropped from the cache, so the next caller tries again
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached lookup result without loading it on a miss.
+     *
+     * @param id The product ID.
+     * @return The cached product, empty if it is cached as missing, or null if the ID is not cached.
+     */
+    public Optional<Product> getIfCached(Long id) {
+        CompletableFuture<Optional<Product>> cached = cache.getIfPresent(id);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return null;
+        }
+        return cached.join();
+    }
+
+    /**
+     * Returns the cached product without loading it on a miss.
+     *
+     * @param id The product ID.
+     * @return The cached product, or null if it is not cached or cached as missing.
+     */
+    public Product peek(Long id) {
+        Optional<Product> cached = getIfCached(id);
+        return cached == null ? null : cached.orElse(null);
+    }
+
+    /**
+     * Evicts the entry now and once more when the current transaction completes.
+     * The second eviction drops anything a concurrent reader loaded from the
+     * not-yet-committed state, so readers never see a stale product after the commit.
+     *
+     * @param id The ID of the product being changed.
+     */
+    public void evictOnCommit(Long id) {
+        cache.synchronous().invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Same as {@link #evictOnCommit(Long)} for many IDs, registering a single synchronization.
+     *
+     * @param ids The IDs of the products being changed.
+     */
+    public void evictAllOnCommit(Collection<Long> ids) {
+        cache.synchronous().invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * Empties the cache now and again when the current transaction completes.
+     * Used after bulk statements, where the affected IDs are not known.
+     */
+    public void clearOnCommit() {
+        cache.synchronous().invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * Publishes the standard cache.* metrics for the "product" cache, plus the collapsed misses.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "product");
+        FunctionCounter.builder("cod.singleflight.collapsed", collapsed, LongAdder::sum)
+                .description("Calls that shared another call's load instead of running their own")
+                .tag("name", "product")
+                .register(registry);
+    }
+
+    /**
+     * @return Hit, miss, collapsed-miss and eviction counters plus the current entry count.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", cache.synchronous().estimatedSize());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("collapsed", collapsed.sum());
+        body.put("evictions", stats.evictionCount());
+        return body;
+    }
+}
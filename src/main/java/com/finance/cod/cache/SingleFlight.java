@@ -0,0 +1,108 @@
+package com.finance.cod.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the load on its own thread
+ * and every caller that arrives while it is running waits for and shares that result.
+ * Nothing is kept once the load completes, so this only collapses overlapping calls; it is not a cache.
+ *
+ * @param <K> The key identifying identical calls.
+ * @param <V> The shared result.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    // Tags the metrics, e.g. "category"
+    private final String name;
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs the loader for the key, unless a call for the same key is already running,
+     * in which case that call's result (or exception) is returned instead.
+     *
+     * @param key Identifies the call; equal keys must produce interchangeable results.
+     * @param loader Produces the result; runs on the calling thread.
+     * @return The loaded or shared result.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            collapsed.increment();
+            return join(running);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * @return How many loads ran, how many calls shared another call's load, and how many loads are running.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("loads", loads.sum());
+        body.put("collapsed", collapsed.sum());
+        body.put("inFlight", inFlight.size());
+        return body;
+    }
+
+    /**
+     * Publishes the load and collapsed counts as cod.singleflight.loads and cod.singleflight.collapsed.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cod.singleflight.loads", loads, LongAdder::sum)
+                .description("Loads run by a single-flight group")
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("cod.singleflight.collapsed", collapsed, LongAdder::sum)
+                .description("Calls that shared another call's load instead of running their own")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    /**
+     * Waits for a shared load, rethrowing its exception as is rather than wrapped.
+     */
+    static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.finance.cod.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a BulkheadDataSource in front of the application DataSource when cod.db.bulkhead.enabled is set.
+ * Unless cod.db.bulkhead.permits says otherwise, the bulkhead is sized to the Hikari pool,
+ * so requests never wait inside the pool itself.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "cod.db.bulkhead.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(
+            @Value("${cod.db.bulkhead.permits:0}") int permits,
+            @Value("${cod.db.bulkhead.max-wait:5s}") Duration maxWait) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = permits > 0 ? permits
+                        : bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                log.info("Limiting DataSource '{}' to {} concurrent connections, max wait {}",
+                        beanName, maxConcurrent, maxWait);
+                return new BulkheadDataSource(dataSource, maxConcurrent, maxWait);
+            }
+        };
+    }
+}
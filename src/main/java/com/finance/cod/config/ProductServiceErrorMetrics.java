@@ -0,0 +1,67 @@
+package com.finance.cod.config;
+
+import com.finance.cod.exception.DuplicateProductNameException;
+import com.finance.cod.exception.ProductNotFoundException;
+import com.finance.cod.exception.ProductVersionMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+
+/**
+ * Counts exceptions thrown by ProductService operations as cod.product.errors, tagged with the
+ * operation, a coarse error type to alert on, and the exception class.
+ * Requests rejected by validation before reaching the service are recorded by the GlobalExceptionHandler.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ProductServiceErrorMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @AfterThrowing(pointcut = "within(com.finance.cod.service.ProductService)", throwing = "ex")
+    public void countError(JoinPoint joinPoint, Throwable ex) {
+        record(joinPoint.getSignature().getName(), ex);
+    }
+
+    /**
+     * Counts one failed product operation.
+     *
+     * @param method The service or controller method that failed.
+     * @param ex The exception it failed with.
+     */
+    public void record(String method, Throwable ex) {
+        Counter.builder("cod.product.errors")
+                .description("Failed product operations, in the service or in request validation")
+                .tag("method", method)
+                .tag("type", typeOf(ex))
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String typeOf(Throwable ex) {
+        if (ex instanceof ProductNotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof DuplicateProductNameException) {
+            return "duplicate_name";
+        }
+        if (ex instanceof ConstraintViolationException || ex instanceof IllegalArgumentException
+                || ex instanceof MethodArgumentNotValidException || ex instanceof HandlerMethodValidationException) {
+            return "validation";
+        }
+        if (ex instanceof ProductVersionMismatchException || ex instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,167 @@
+package com.finance.cod.config;
+
+import com.finance.cod.entity.Product;
+import com.finance.cod.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * QueryPlanChecker runs EXPLAIN on every query method declared on ProductRepository once the
+ * application has started, and logs a warning for each one the database plans as a full table scan.
+ * The SQL is captured from Hibernate without executing the query, so the check stays cheap on a
+ * large catalog. Only H2 plans are understood; on other databases the check is skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "cod.query-plan-check.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryPlanChecker {
+
+    private static final String H2_TABLE_SCAN = ".tableScan";
+
+    private final ProductRepository productRepository;
+
+    private final SqlCaptureInspector sqlCaptureInspector;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkQueryPlans() {
+        String database = jdbcTemplate.execute(
+                (Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(database)) {
+            log.info("Skipping query plan check, plans from {} are not supported", database);
+            return;
+        }
+
+        int tableScans = 0;
+        for (Method method : ProductRepository.class.getDeclaredMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())
+                    || method.isAnnotationPresent(Modifying.class)) {
+                continue;
+            }
+            Object[] args = sampleArguments(method);
+            if (args == null) {
+                log.debug("Skipping query plan check for {}, unsupported parameter types", method.getName());
+                continue;
+            }
+            String sql = sqlCaptureInspector.capture(() -> invoke(method, args));
+            if (sql == null) {
+                continue;
+            }
+            String plan = explain(sql);
+            if (plan.contains(H2_TABLE_SCAN)) {
+                tableScans++;
+                log.warn("ProductRepository.{} runs as a full table scan: {}", method.getName(), plan);
+            } else {
+                log.debug("ProductRepository.{} plan: {}", method.getName(), plan);
+            }
+        }
+        log.info("Query plan check finished, {} table scan(s) found", tableScans);
+    }
+
+    private Object invoke(Method method, Object[] args) {
+        try {
+            return method.invoke(productRepository, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            // The plan depends on the shape of the query, not on the bound values
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1).replaceAll("\\s+", " ") : "";
+            }
+        });
+    }
+
+    /**
+     * Builds placeholder arguments so a query method can be invoked far enough to generate its SQL.
+     *
+     * @return The arguments, or null if a parameter type is not supported.
+     */
+    private Object[] sampleArguments(Method method) {
+        Type[] types = method.getGenericParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = sampleValue(types[i]);
+            if (args[i] == null) {
+                return null;
+            }
+        }
+        return args;
+    }
+
+    private Object sampleValue(Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            Type raw = parameterized.getRawType();
+            if (raw instanceof Class<?> rawClass && Collection.class.isAssignableFrom(rawClass)) {
+                Object element = sampleValue(parameterized.getActualTypeArguments()[0]);
+                return element == null ? null : List.of(element);
+            }
+            if (raw == Class.class) {
+                return Product.class;
+            }
+            return null;
+        }
+        if (!(type instanceof Class<?> clazz)) {
+            return null;
+        }
+        if (clazz == String.class) {
+            return "sample";
+        } else if (clazz == Long.class || clazz == long.class) {
+            return 0L;
+        } else if (clazz == Integer.class || clazz == int.class) {
+            return 0;
+        } else if (clazz == Boolean.class || clazz == boolean.class) {
+            return Boolean.TRUE;
+        } else if (clazz == BigDecimal.class) {
+            return BigDecimal.ZERO;
+        } else if (clazz == LocalDateTime.class) {
+            return LocalDateTime.now();
+        } else if (clazz.isEnum()) {
+            return clazz.getEnumConstants()[0];
+        } else if (clazz == Limit.class) {
+            return Limit.of(1);
+        } else if (clazz == Pageable.class) {
+            return PageRequest.of(0, 1);
+        } else if (clazz == Sort.class) {
+            return Sort.unsorted();
+        } else if (clazz == Class.class) {
+            return Product.class;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.finance.cod.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * SqlCaptureInspector lets the QueryPlanChecker find out which SQL Hibernate generates for a
+ * repository method without running it. While a capture is in progress on the current thread,
+ * the SQL is recorded and the statement is aborted before it reaches the database.
+ * Outside of a capture every statement passes through untouched.
+ */
+@Component
+@ConditionalOnProperty(name = "cod.query-plan-check.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlCaptureInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Boolean> CAPTURING = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (Boolean.TRUE.equals(CAPTURING.get())) {
+            throw new CapturedSql(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Runs the query and returns the first SQL statement it tried to execute.
+     *
+     * @param query Invokes a repository query method.
+     * @return The captured SQL, or null if the query issued no statement.
+     */
+    public String capture(Supplier<?> query) {
+        CAPTURING.set(Boolean.TRUE);
+        try {
+            query.get();
+            return null;
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof CapturedSql captured) {
+                    return captured.sql;
+                }
+            }
+            throw e;
+        } finally {
+            CAPTURING.remove();
+        }
+    }
+
+    private static final class CapturedSql extends RuntimeException {
+
+        private final String sql;
+
+        private CapturedSql(String sql) {
+            super(null, null, false, false);
+            this.sql = sql;
+        }
+    }
+}
@@ -1,16 +1,45 @@
 package com.finance.cod.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.finance.cod.dto.BatchCreateResult;
+import com.finance.cod.dto.BulkDiscountRequest;
+import com.finance.cod.dto.CursorPage;
+import com.finance.cod.dto.NameSuggestion;
+import com.finance.cod.dto.ProductFacets;
+import com.finance.cod.dto.ProductLookupResult;
+import com.finance.cod.dto.ProductStamp;
+import com.finance.cod.dto.ProductSummary;
+import com.finance.cod.dto.ProductUpdate;
+import com.finance.cod.dto.SearchHit;
+import com.finance.cod.dto.SlicePage;
 import com.finance.cod.entity.Product;
+import com.finance.cod.exception.ProductVersionMismatchException;
 import com.finance.cod.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ProductController manages REST endpoints for Product operations.
@@ -22,25 +51,142 @@ import java.util.List;
 @Validated  // Optional: Enables JSR-303/JSR-380 validation on parameters if using @Valid
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_SEARCH_HITS = 100;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final String VIEW_SUMMARY = "summary";
+
+    private static final String VIEW_FULL = "full";
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // Body formats in converter order, so JSON wins when the client accepts anything (see BinaryFormatConfig)
+    private static final List<MediaType> REPRESENTATIONS =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
     private final ProductService productService;
 
+    private final ObjectMapper objectMapper;
+
     /**
-     * Retrieves a list of all products.
+     * Retrieves a list of all products, as summaries unless view=full asks for descriptions too.
+     * Every GET below also accepts ?fields=, which selects just those columns in SQL and takes precedence over view.
+     * Answers 304 Not Modified when If-None-Match still matches the catalog, checked against an in-memory
+     * version without a query. There is no Last-Modified: deletes leave no modification time behind.
+     * JSON, CBOR and Smile bodies get different ETags and the response varies by Accept.
      * GET /api/products
+     * GET /api/products?view=full
+     * GET /api/products?fields=id,name,price
      */
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<?>> getAllProducts(
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request
+    ) {
+        Class<?> type = fields == null ? viewType(view) : null;
+        // The selected representation and body format change the body, so they are part of the ETag
+        String variant = fields == null ? view : "fields:" + String.join(",", fields);
+        String representation = representation(request);
+        if (representation != null) {
+            variant += "+" + representation;
+        }
+        if (request.checkNotModified(productService.getCatalogETag(variant))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        if (fields != null) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(productService.getAllProductFields(fields));
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(productService.getAllProducts(type));
+    }
+
+    /**
+     * Retrieves one page of products ordered by ID.
+     * GET /api/products?limit=50
+     * GET /api/products?limit=50&after={nextCursor}&view=full
+     * GET /api/products?limit=50&fields=id,name
+     */
+    @GetMapping(params = "limit")
+    public CursorPage<?> getProductsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+            @RequestParam(required = false) List<String> fields
+    ) {
+        if (fields != null) {
+            return productService.getProductFieldsPage(after, limit, fields);
+        }
+        return productService.getProductsPage(after, limit, viewType(view));
+    }
+
+    /**
+     * Retrieves many products by ID in one call, e.g. all line items of a cart.
+     * Results are in request order; unknown IDs are marked NOT_FOUND instead of failing the request.
+     * GET /api/products?ids=1,2,3
+     */
+    @GetMapping(params = {"ids", "!limit"})
+    public List<ProductLookupResult> getProductsByIds(@RequestParam List<Long> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
+    /**
+     * Streams the whole catalog as newline-delimited JSON, one product per line.
+     * Products are written as they are read, so the response is never held in memory.
+     * GET /api/products/stream
+     */
+    @GetMapping("/stream")
+    public void streamProducts(HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON.toString());
+        ObjectWriter writer = objectMapper.writerFor(Product.class);
+        OutputStream out = response.getOutputStream();
+        productService.exportProducts(product -> {
+            try {
+                out.write(writer.writeValueAsBytes(product));
+                out.write('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
     }
 
     /**
      * Retrieves a product by its ID.
+     * Field selections are read straight from the database and carry no validators.
      * GET /api/products/{id}
+     * GET /api/products/{id}?fields=name,price
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request
+    ) {
+        if (fields != null) {
+            return ResponseEntity.ok(productService.getProductFields(id, fields));
+        }
+        String representation = representation(request);
+        // Conditional requests are answered from the stamp alone; the product is only loaded if it changed
+        if (isConditional(request)) {
+            ProductStamp stamp = productService.getProductStamp(id);
+            if (request.checkNotModified(stamp.toETag(representation), stamp.lastModifiedMillis())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        ProductStamp stamp = ProductStamp.of(product);
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(stamp.toETag(representation))
+                .lastModified(stamp.lastModifiedMillis())
+                .body(product);
     }
 
     /**
@@ -62,8 +208,28 @@ public class ProductController {
     }
 
     /**
-     * Updates an existing product by its ID.
+     * Creates many products in one call. Each product is validated on its own and
+     * the response reports, per position in the request, either the new ID or the reason
+     * it was rejected.
+     * POST /api/products/batch
+     * Example JSON body:
+     * [
+     *   { "name": "Smartphone", "price": 699.99, "inStock": true, "category": "ELECTRONICS" },
+     *   { "name": "Novel", "price": 12.50, "inStock": true, "category": "BOOKS" }
+     * ]
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResult> createProducts(@RequestBody List<Product> products) {
+        BatchCreateResult result = productService.createProducts(products);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Updates an existing product by its ID. Fields that are not sent keep their current value.
+     * Send the ETag from a previous GET as If-Match to have the update rejected with
+     * 412 Precondition Failed if someone else changed the product in the meantime.
      * PUT /api/products/{id}
+     * If-Match: "1-3"
      * {
      *   "price": 599.99,
      *   "inStock": false,
@@ -73,10 +239,58 @@ public class ProductController {
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
             @PathVariable Long id,
-            @RequestBody Product productUpdates
+            @RequestBody ProductUpdate productUpdates,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest request
+    ) {
+        Long expectedVersion = ifMatch == null ? null : expectedVersion(id, ifMatch);
+        Product updated = productService.updateProduct(id, productUpdates, expectedVersion);
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(ProductStamp.of(updated).toETag(representation(request)))
+                .body(updated);
+    }
+
+    /**
+     * Partially updates a product with JSON Merge Patch semantics: only the fields sent are changed,
+     * null clears an optional field, and only the changed columns are written.
+     * Accepts If-Match like PUT.
+     * PATCH /api/products/{id}
+     * Content-Type: application/merge-patch+json
+     * {
+     *   "price": 549.99,
+     *   "description": null
+     * }
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Product> patchProduct(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest request
     ) {
-        Product updated = productService.updateProduct(id, productUpdates);
-        return ResponseEntity.ok(updated);
+        Long expectedVersion = ifMatch == null ? null : expectedVersion(id, ifMatch);
+        Product patched = productService.patchProduct(id, patch, expectedVersion);
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(ProductStamp.of(patched).toETag(representation(request)))
+                .body(patched);
+    }
+
+    /**
+     * Applies a discount to every product matching a category and/or price filter in one statement.
+     * POST /api/products/discount
+     * {
+     *   "discount": 0.10,
+     *   "category": "ELECTRONICS",
+     *   "maxPrice": 500
+     * }
+     */
+    @PostMapping("/discount")
+    public ResponseEntity<Map<String, Integer>> applyBulkDiscount(@Valid @RequestBody BulkDiscountRequest request) {
+        int updated = productService.applyBulkDiscount(request.getDiscount(), request.getCategory(),
+                request.getMinPrice(), request.getMaxPrice());
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 
     /**
@@ -90,22 +304,157 @@ public class ProductController {
     }
 
     /**
-     * Retrieves products cheaper than or equal to a given max price.
+     * Deletes many products by ID, e.g. for cleanup jobs. Unknown IDs are skipped.
+     * DELETE /api/products?ids=1,2,3
+     */
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<Map<String, Integer>> deleteProducts(@RequestParam List<Long> ids) {
+        int deleted = productService.deleteProducts(ids);
+        return ResponseEntity.ok(Map.of("requested", ids.size(), "deleted", deleted));
+    }
+
+    /**
+     * Retrieves one page of products within a price range, sorted by price or createdDate.
+     * Both bounds are optional and inclusive; the page size is capped by spring.data.web.pageable.max-page-size.
      * GET /api/products/price?max=1000
+     * GET /api/products/price?min=100&max=1000&sort=createdDate,desc&page=2&size=50
+     * GET /api/products/price?max=1000&fields=name,price
      */
     @GetMapping("/price")
-    public ResponseEntity<List<Product>> getProductsByMaxPrice(@RequestParam("max") BigDecimal maxPrice) {
-        List<Product> products = productService.getProductsByMaxPrice(maxPrice);
+    public ResponseEntity<SlicePage<?>> getProductsByPriceRange(
+            @RequestParam(value = "min", required = false) BigDecimal minPrice,
+            @RequestParam(value = "max", required = false) BigDecimal maxPrice,
+            @PageableDefault(size = 50, sort = "price") Pageable pageable,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+            @RequestParam(required = false) List<String> fields
+    ) {
+        SlicePage<?> products = fields != null
+                ? productService.getProductFieldsByPriceRange(minPrice, maxPrice, pageable, fields)
+                : productService.getProductsByPriceRange(minPrice, maxPrice, pageable, viewType(view));
         return ResponseEntity.ok(products);
     }
 
     /**
      * Retrieves in-stock products for a given category.
      * GET /api/products/category/{category}
+     * GET /api/products/category/{category}?view=full
+     * GET /api/products/category/{category}?fields=name
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getInStockByCategory(@PathVariable String category) {
-        List<Product> products = productService.getInStockProductsByCategory(category);
+    public ResponseEntity<List<?>> getInStockByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+            @RequestParam(required = false) List<String> fields
+    ) {
+        List<?> products = fields != null
+                ? productService.getInStockProductFieldsByCategory(category, fields)
+                : productService.getInStockProductsByCategory(category, viewType(view));
         return ResponseEntity.ok(products);
     }
+
+    /**
+     * Full-text search over product names and descriptions, best matches first.
+     * GET /api/products/search?q=gaming lap*&limit=20
+     */
+    @GetMapping("/search")
+    public List<SearchHit> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_SEARCH_HITS) int limit
+    ) {
+        return productService.searchProducts(q, limit);
+    }
+
+    /**
+     * Suggests product names starting with the given prefix, ignoring case.
+     * GET /api/products/suggest?prefix=lap&limit=10
+     */
+    @GetMapping("/suggest")
+    public List<NameSuggestion> suggestNames(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_SUGGESTIONS) int limit
+    ) {
+        return productService.suggestNames(prefix, limit);
+    }
+
+    /**
+     * Retrieves product counts per category, split by stock status, with min/max/avg prices.
+     * GET /api/products/facets
+     */
+    @GetMapping("/facets")
+    public ProductFacets getFacets() {
+        return productService.getFacets();
+    }
+
+    /**
+     * Retrieves runtime statistics such as product cache hits, misses and evictions.
+     * GET /api/products/stats
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> getStatistics() {
+        return productService.getStatistics();
+    }
+
+    /**
+     * Maps the view parameter of list endpoints to the type the repository should return.
+     */
+    private static Class<?> viewType(String view) {
+        return switch (view) {
+            case VIEW_SUMMARY -> ProductSummary.class;
+            case VIEW_FULL -> Product.class;
+            default -> throw new IllegalArgumentException("Unknown view '" + view + "', expected summary or full");
+        };
+    }
+
+    /**
+     * Names the format the body will be negotiated to, following the Accept header the way the message
+     * converters do: the most specific and preferred accepted type, then the first format it allows.
+     *
+     * @return "cbor" or "smile", or null for JSON, which keeps the plain entity tags.
+     */
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType format : REPRESENTATIONS) {
+                if (type.isCompatibleWith(format)) {
+                    if (format.equals(MediaType.APPLICATION_CBOR)) {
+                        return "cbor";
+                    }
+                    return format.equals(APPLICATION_SMILE) ? "smile" : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Reads the product version out of an If-Match header; "*" matches any version.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        for (String eTag : ifMatch.split(",")) {
+            String trimmed = eTag.trim();
+            if (trimmed.equals("*")) {
+                return null;
+            }
+            Long version = ProductStamp.versionFromETag(id, trimmed);
+            if (version != null) {
+                return version;
+            }
+        }
+        throw new ProductVersionMismatchException("If-Match " + ifMatch + " does not match product " + id);
+    }
 }
@@ -0,0 +1,18 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Report for a bulk create request: totals plus one result per submitted product, in request order.
+ */
+@Value
+public class BatchCreateResult {
+
+    int created;
+
+    int rejected;
+
+    List<BatchItemResult> items;
+}
@@ -0,0 +1,31 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+
+/**
+ * Outcome for one product of a bulk create request, identified by its position in the request.
+ */
+@Value
+public class BatchItemResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    int index;
+
+    Status status;
+
+    Long id;
+
+    String error;
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, Status.CREATED, id, null);
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, Status.REJECTED, null, error);
+    }
+}
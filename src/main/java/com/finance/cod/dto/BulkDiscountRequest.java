@@ -0,0 +1,28 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.ProductCategory;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Discount to apply to every product matching the given filters.
+ * At least one of category, minPrice and maxPrice must be set.
+ */
+@Data
+public class BulkDiscountRequest {
+
+    @NotNull
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double discount;
+
+    private ProductCategory category;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,26 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.ProductCategory;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Product counts and price range of one category, for facet sidebars.
+ * Prices are null when the category has no products.
+ */
+@Value
+public class CategoryFacet {
+
+    ProductCategory category;
+
+    long inStock;
+
+    long outOfStock;
+
+    BigDecimal minPrice;
+
+    BigDecimal maxPrice;
+
+    BigDecimal avgPrice;
+}
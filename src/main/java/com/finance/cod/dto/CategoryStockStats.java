@@ -0,0 +1,25 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.ProductCategory;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the GROUP BY category, in_stock aggregate the facet counters are reconciled against.
+ */
+@Value
+public class CategoryStockStats {
+
+    ProductCategory category;
+
+    boolean inStock;
+
+    long count;
+
+    BigDecimal minPrice;
+
+    BigDecimal maxPrice;
+
+    BigDecimal priceSum;
+}
@@ -0,0 +1,18 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A single page of results from a keyset (cursor) paginated query.
+ * Pass nextCursor back as the 'after' parameter to fetch the following page;
+ * it is null once the last page has been reached.
+ */
+@Value
+public class CursorPage<T> {
+
+    List<T> items;
+
+    String nextCursor;
+}
@@ -0,0 +1,14 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+
+/**
+ * A product name matching an autocomplete prefix.
+ */
+@Value
+public class NameSuggestion {
+
+    Long id;
+
+    String name;
+}
@@ -0,0 +1,18 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Facets for every product category, served from in-memory counters.
+ */
+@Value
+public class ProductFacets {
+
+    List<CategoryFacet> categories;
+
+    // When the counters were last checked against the database
+    LocalDateTime reconciledAt;
+}
@@ -0,0 +1,28 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.ProductCategory;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Row filters for queries built at runtime. Unset (null) filters are left out of the WHERE clause.
+ */
+@Value
+@Builder
+public class ProductFilter {
+
+    Long id;
+
+    // Keyset pagination: only products with a greater ID
+    Long afterId;
+
+    ProductCategory category;
+
+    Boolean inStock;
+
+    BigDecimal minPrice;
+
+    BigDecimal maxPrice;
+}
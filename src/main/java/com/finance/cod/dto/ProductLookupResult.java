@@ -0,0 +1,30 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.Product;
+import lombok.Value;
+
+/**
+ * Outcome for one ID of a multi-get request; results are returned in request order.
+ */
+@Value
+public class ProductLookupResult {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    Long id;
+
+    Status status;
+
+    Product product;
+
+    public static ProductLookupResult found(Product product) {
+        return new ProductLookupResult(product.getId(), Status.FOUND, product);
+    }
+
+    public static ProductLookupResult notFound(Long id) {
+        return new ProductLookupResult(id, Status.NOT_FOUND, null);
+    }
+}
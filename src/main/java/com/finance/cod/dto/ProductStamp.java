@@ -0,0 +1,72 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.Product;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The columns of a product needed to answer a conditional GET, without loading the product itself.
+ */
+@Value
+public class ProductStamp {
+
+    Long id;
+
+    Long version;
+
+    LocalDateTime lastModifiedDate;
+
+    public static ProductStamp of(Product product) {
+        return new ProductStamp(product.getId(), product.getVersion(), product.getLastModifiedDate());
+    }
+
+    /**
+     * @return A strong entity tag built from the row version, so it changes with every update.
+     */
+    public String toETag() {
+        return toETag(null);
+    }
+
+    /**
+     * @param representation The body format, e.g. "cbor", or null for JSON; strong tags must differ per format.
+     * @return A strong entity tag built from the row version and the format.
+     */
+    public String toETag(String representation) {
+        return "\"" + id + "-" + version + (representation == null ? "" : "+" + representation) + "\"";
+    }
+
+    /**
+     * Extracts the version from an entity tag produced by {@link #toETag(String)} for the given product.
+     * The format does not matter here: every representation of a version has the same fields.
+     *
+     * @param id The product the tag is expected to belong to.
+     * @param eTag A single entity tag, e.g. from an If-Match header.
+     * @return The version, or null if the tag is weak, malformed or belongs to another product.
+     */
+    public static Long versionFromETag(Long id, String eTag) {
+        String prefix = "\"" + id + "-";
+        if (!eTag.startsWith(prefix) || !eTag.endsWith("\"") || eTag.length() <= prefix.length() + 1) {
+            return null;
+        }
+        String versionPart = eTag.substring(prefix.length(), eTag.length() - 1);
+        int representation = versionPart.indexOf('+');
+        if (representation >= 0) {
+            versionPart = versionPart.substring(0, representation);
+        }
+        try {
+            return Long.parseLong(versionPart);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The modification time in epoch milliseconds, or -1 if unknown.
+     */
+    public long lastModifiedMillis() {
+        return lastModifiedDate == null ? -1
+                : lastModifiedDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
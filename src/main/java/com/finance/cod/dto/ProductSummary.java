@@ -0,0 +1,24 @@
+package com.finance.cod.dto;
+
+import com.finance.cod.entity.ProductCategory;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns list pages show. Used as a Spring Data projection, so the TEXT description
+ * is neither read from the database nor serialized for list endpoints.
+ */
+@Value
+public class ProductSummary {
+
+    Long id;
+
+    String name;
+
+    BigDecimal price;
+
+    boolean inStock;
+
+    ProductCategory category;
+}
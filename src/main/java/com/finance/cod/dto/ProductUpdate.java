@@ -0,0 +1,24 @@
+package com.finance.cod.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of a product update (PUT). Fields left out, or sent as null, keep their current value;
+ * inStock is a Boolean so that "not sent" can be told apart from false.
+ */
+@Data
+public class ProductUpdate {
+
+    private String name;
+
+    private String description;
+
+    private BigDecimal price;
+
+    private Boolean inStock;
+
+    // Optional discount instruction, e.g. "DISCOUNT:0.10"
+    private String transientField;
+}
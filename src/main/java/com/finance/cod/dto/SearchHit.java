@@ -0,0 +1,17 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+
+/**
+ * One full-text search result; fetch the product by ID for the other fields.
+ */
+@Value
+public class SearchHit {
+
+    Long id;
+
+    String name;
+
+    // BM25 relevance; only meaningful relative to other hits of the same query
+    double score;
+}
@@ -0,0 +1,26 @@
+package com.finance.cod.dto;
+
+import lombok.Value;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * A page of results that only knows whether a next page exists, not the total count,
+ * so producing it never needs a COUNT query.
+ */
+@Value
+public class SlicePage<T> {
+
+    List<T> items;
+
+    int page;
+
+    int size;
+
+    boolean hasNext;
+
+    public static <T> SlicePage<T> of(Slice<T> slice) {
+        return new SlicePage<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -1,14 +1,28 @@
 package com.finance.cod.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "products")
+@DynamicUpdate  // UPDATE only the changed columns, e.g. not the TEXT description on a price change
+// Second-level cache, shared across transactions. Bulk statements (the single DELETEs and the bulk discount)
+// evict the whole region, since Hibernate cannot tell which rows they touched. Accepted: they are rare
+// next to reads, and ProductCache still fronts findById, so only the reads behind it are refilled
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_category_in_stock", columnList = "category, in_stock"),
+        @Index(name = "idx_products_last_modified", columnList = "last_modified_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +30,9 @@ import java.time.LocalDateTime;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY: Hibernate can only batch inserts when it assigns IDs up front
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -24,6 +40,14 @@ public class Product {
     @Column(nullable = false, length = 100, unique = true)
     private String name;
 
+    // Case-folded copy of name with its own unique index, so duplicate checks are one index lookup
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key", nullable = false, unique = true)
+    private String nameKey;
+
+    // Left out of toString so logging a product never copies the full text
+    @ToString.Exclude
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -35,6 +59,13 @@ public class Product {
 
     private LocalDateTime createdDate;
 
+    // Drives the Last-Modified header on conditional GETs
+    private LocalDateTime lastModifiedDate;
+
+    // Optimistic locking: concurrent updates fail instead of overwriting each other; also the ETag
+    @Version
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private ProductCategory category; // REQUIRES your "ProductCategory" enum
 
@@ -45,15 +76,41 @@ public class Product {
     @PrePersist
     public void onPrePersist() {
         this.createdDate = LocalDateTime.now();
+        this.lastModifiedDate = this.createdDate;
+        this.nameKey = nameKeyOf(this.name);
+    }
+
+    @PreUpdate
+    public void onPreUpdate() {
+        this.lastModifiedDate = LocalDateTime.now();
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = nameKeyOf(name);
+    }
+
+    /**
+     * Case-folds a product name the same way it is stored in the name_key column.
+     */
+    public static String nameKeyOf(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
     }
 
     public BigDecimal applyDiscount(double discountPercentage) {
-        if (discountPercentage < 0 || discountPercentage > 1) {
-            throw new IllegalArgumentException("Discount must be between 0 and 1");
-        }
+        checkDiscount(discountPercentage);
         BigDecimal discountFactor = BigDecimal.valueOf(discountPercentage);
         BigDecimal discountAmount = this.price.multiply(discountFactor);
         this.price = this.price.subtract(discountAmount);
         return this.price;
     }
+
+    /**
+     * Rejects discounts outside 0..1; shared by single and bulk discount paths.
+     */
+    public static void checkDiscount(double discountPercentage) {
+        if (discountPercentage < 0 || discountPercentage > 1) {
+            throw new IllegalArgumentException("Discount must be between 0 and 1");
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.finance.cod.event;
+
+import lombok.Value;
+
+/**
+ * Published by ProductService after a set-based statement changed an unknown set of products,
+ * e.g. a bulk discount. Read models that depend on the changed columns have to be rebuilt.
+ */
+@Value
+public class CatalogChangedEvent {
+
+    // What the statement did, for logging
+    String reason;
+}
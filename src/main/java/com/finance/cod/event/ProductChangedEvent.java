@@ -0,0 +1,39 @@
+package com.finance.cod.event;
+
+import com.finance.cod.entity.Product;
+import lombok.Value;
+
+/**
+ * Published by ProductService when a single product is created, updated or deleted.
+ * Listeners should use @TransactionalEventListener so they only see committed changes.
+ */
+@Value
+public class ProductChangedEvent {
+
+    Long id;
+
+    // State before the change; null for creations and for deletions of products that were not loaded
+    ProductSnapshot before;
+
+    // State after the change; null for deletions
+    ProductSnapshot after;
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(product.getId(), null, ProductSnapshot.of(product));
+    }
+
+    public static ProductChangedEvent updated(ProductSnapshot before, Product product) {
+        return new ProductChangedEvent(product.getId(), before, ProductSnapshot.of(product));
+    }
+
+    /**
+     * @param before The deleted state if it is known, e.g. from the product cache, otherwise null.
+     */
+    public static ProductChangedEvent deleted(Long id, ProductSnapshot before) {
+        return new ProductChangedEvent(id, before, null);
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
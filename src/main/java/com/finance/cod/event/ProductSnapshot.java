@@ -0,0 +1,32 @@
+package com.finance.cod.event;
+
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * An immutable copy of the product state that in-memory read models are built from,
+ * taken at the time of a change so listeners never touch the (possibly still managed) entity.
+ */
+@Value
+public class ProductSnapshot {
+
+    Long id;
+
+    String name;
+
+    String description;
+
+    BigDecimal price;
+
+    boolean inStock;
+
+    ProductCategory category;
+
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.isInStock(), product.getCategory());
+    }
+}
@@ -0,0 +1,7 @@
+package com.finance.cod.exception;
+
+public class DuplicateProductNameException extends RuntimeException {
+    public DuplicateProductNameException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,31 @@
 package com.finance.cod.exception;
 
+import com.finance.cod.config.ProductServiceErrorMetrics;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ProductServiceErrorMetrics errorMetrics;
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleProductNotFound(ProductNotFoundException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -20,6 +35,68 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleVersionMismatch(ProductVersionMismatchException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        body.put("status", HttpStatus.PRECONDITION_FAILED.value());
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Another request updated the same product between our read and our write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Product was modified concurrently, please reload and retry");
+        body.put("status", HttpStatus.CONFLICT.value());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    // Raised when no database connection could be obtained in time, e.g. when the bulkhead is full
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, Object>> handleDatabaseBusy(CannotCreateTransactionException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Database is busy, please retry");
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Invalid request bodies (@Valid) and parameters are rejected before the service runs,
+    // so they are counted here rather than by the service error metrics
+    @ExceptionHandler({MethodArgumentNotValidException.class, HandlerMethodValidationException.class})
+    public ResponseEntity<Map<String, Object>> handleInvalidRequest(Exception ex, HandlerMethod handlerMethod) {
+        errorMetrics.record(handlerMethod.getMethod().getName(), ex);
+        List<? extends MessageSourceResolvable> errors = ex instanceof MethodArgumentNotValidException invalidBody
+                ? invalidBody.getAllErrors()
+                : ((HandlerMethodValidationException) ex).getAllErrors();
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", errors.stream()
+                .map(GlobalExceptionHandler::describe)
+                .sorted()
+                .collect(Collectors.joining(", ")));
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    // Parameter constraints are checked on the controller (@Validated); bean violations come from the service,
+    // which already counts them
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolation(ConstraintViolationException ex,
+                                                                         HandlerMethod handlerMethod) {
+        if (ex.getConstraintViolations().stream().anyMatch(v -> v.getExecutableParameters() != null)) {
+            errorMetrics.record(handlerMethod.getMethod().getName(), ex);
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -28,4 +105,10 @@ public class GlobalExceptionHandler {
         body.put("status", HttpStatus.BAD_REQUEST.value());
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
+
+    private static String describe(MessageSourceResolvable error) {
+        return error instanceof FieldError fieldError
+                ? fieldError.getField() + " " + fieldError.getDefaultMessage()
+                : error.getDefaultMessage();
+    }
 }
@@ -0,0 +1,7 @@
+package com.finance.cod.exception;
+
+public class ProductVersionMismatchException extends RuntimeException {
+    public ProductVersionMismatchException(String message) {
+        super(message);
+    }
+}
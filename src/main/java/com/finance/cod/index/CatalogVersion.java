@@ -0,0 +1,43 @@
+package com.finance.cod.index;
+
+import com.finance.cod.event.CatalogChangedEvent;
+import com.finance.cod.event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CatalogVersion counts committed catalog changes, so conditional GETs on the product listing are answered
+ * without querying the products table. Creates, updates and deletes, single or bulk, all publish an event,
+ * and each one moves the version once its transaction has committed.
+ * Like the other in-memory indexes it only sees changes made through this instance.
+ */
+@Component
+public class CatalogVersion {
+
+    // Tells versions of different runs apart, since the counter starts over on every startup
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    private final AtomicLong version = new AtomicLong();
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Read before loading the listing: the body is then at least as new as the tag it is sent with.
+     *
+     * @param variant The representation served, e.g. the view or field selection; each has its own content.
+     * @return A strong entity tag that changes whenever the catalog is modified.
+     */
+    public String toETag(String variant) {
+        return "\"catalog-" + variant + "-" + epoch + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,258 @@
+package com.finance.cod.index;
+
+import com.finance.cod.dto.CategoryFacet;
+import com.finance.cod.dto.CategoryStockStats;
+import com.finance.cod.dto.ProductFacets;
+import com.finance.cod.entity.ProductCategory;
+import com.finance.cod.event.CatalogChangedEvent;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.event.ProductSnapshot;
+import com.finance.cod.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CategoryFacetIndex keeps product counts per category and stock status, plus price statistics,
+ * in memory so facet requests never aggregate over the products table.
+ * The counters follow committed product changes and are periodically reconciled against a GROUP BY query.
+ * They are also reconciled early when a change cannot be applied incrementally: a bulk statement,
+ * a deletion of a product whose state was not known, or removing the current minimum or maximum price.
+ */
+@Component
+@Slf4j
+public class CategoryFacetIndex {
+
+    private final ProductRepository productRepository;
+
+    private final long reconcileIntervalNanos;
+
+    // Serializes reconciles; the index lock (this) only guards the counters
+    private final Object reconcileLock = new Object();
+
+    private Map<ProductCategory, Counters> counters = emptyCounters();
+
+    // Changes seen while a reconcile query runs; replayed onto its result
+    private List<ProductChangedEvent> changesDuringReconcile;
+
+    private LocalDateTime reconciledAt;
+
+    private long lastReconcileNanos;
+
+    private volatile boolean dirty = true;
+
+    public CategoryFacetIndex(ProductRepository productRepository,
+                              @Value("${cod.facets.reconcile-interval:5m}") Duration reconcileInterval) {
+        this.productRepository = productRepository;
+        this.reconcileIntervalNanos = reconcileInterval.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        reconcile();
+    }
+
+    @TransactionalEventListener
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (changesDuringReconcile != null) {
+            changesDuringReconcile.add(event);
+        }
+        apply(counters, event);
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Facet counters need reconciling after {}", event.getReason());
+        dirty = true;
+    }
+
+    /**
+     * Reconciles the counters when a change could not be applied incrementally or the interval has passed.
+     */
+    @Scheduled(fixedDelayString = "${cod.facets.check-interval:10s}")
+    public void reconcileIfDue() {
+        if (dirty || System.nanoTime() - lastReconcileNanos >= reconcileIntervalNanos) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Rebuilds the counters from the database. Changes committed while the query runs are replayed
+     * onto its result, so they are not lost. A replayed change may already be in the result and be
+     * counted twice, so the counters are marked dirty and the next check reconciles again.
+     */
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                changesDuringReconcile = new ArrayList<>();
+                dirty = false;
+            }
+            List<CategoryStockStats> rows;
+            try {
+                rows = productRepository.aggregateByCategoryAndStock();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changesDuringReconcile = null;
+                    dirty = true;
+                }
+                throw e;
+            }
+
+            Map<ProductCategory, Counters> rebuilt = emptyCounters();
+            for (CategoryStockStats row : rows) {
+                if (row.getCategory() != null) {
+                    rebuilt.get(row.getCategory()).add(row);
+                }
+            }
+            synchronized (this) {
+                for (ProductChangedEvent event : changesDuringReconcile) {
+                    apply(rebuilt, event);
+                }
+                if (!changesDuringReconcile.isEmpty()) {
+                    dirty = true;
+                }
+                changesDuringReconcile = null;
+                counters = rebuilt;
+                reconciledAt = LocalDateTime.now();
+                lastReconcileNanos = System.nanoTime();
+            }
+            log.debug("Facet counters reconciled from {} aggregate rows", rows.size());
+        }
+    }
+
+    /**
+     * @return The current facets of every category, including empty ones.
+     */
+    public synchronized ProductFacets snapshot() {
+        List<CategoryFacet> facets = new ArrayList<>(counters.size());
+        counters.forEach((category, c) -> facets.add(c.toFacet(category)));
+        return new ProductFacets(facets, reconciledAt);
+    }
+
+    private void apply(Map<ProductCategory, Counters> target, ProductChangedEvent event) {
+        if (event.isDeleted() && event.getBefore() == null) {
+            dirty = true;
+            return;
+        }
+        if (event.getBefore() != null && !remove(target, event.getBefore())) {
+            dirty = true;
+        }
+        if (event.getAfter() != null) {
+            add(target, event.getAfter());
+        }
+    }
+
+    private static void add(Map<ProductCategory, Counters> target, ProductSnapshot product) {
+        if (product.getCategory() != null) {
+            target.get(product.getCategory()).add(product.isInStock(), product.getPrice());
+        }
+    }
+
+    /**
+     * @return false if the counters cannot tell the new minimum or maximum price without a reconcile.
+     */
+    private static boolean remove(Map<ProductCategory, Counters> target, ProductSnapshot product) {
+        return product.getCategory() == null
+                || target.get(product.getCategory()).remove(product.isInStock(), product.getPrice());
+    }
+
+    private static Map<ProductCategory, Counters> emptyCounters() {
+        Map<ProductCategory, Counters> counters = new EnumMap<>(ProductCategory.class);
+        for (ProductCategory category : ProductCategory.values()) {
+            counters.put(category, new Counters());
+        }
+        return counters;
+    }
+
+    /**
+     * Mutable counters of one category; only accessed while holding the index lock.
+     */
+    private static class Counters {
+
+        long inStock;
+
+        long outOfStock;
+
+        BigDecimal priceSum = BigDecimal.ZERO;
+
+        BigDecimal minPrice;
+
+        BigDecimal maxPrice;
+
+        void add(CategoryStockStats row) {
+            if (row.isInStock()) {
+                inStock += row.getCount();
+            } else {
+                outOfStock += row.getCount();
+            }
+            if (row.getPriceSum() != null) {
+                priceSum = priceSum.add(row.getPriceSum());
+            }
+            extendRange(row.getMinPrice());
+            extendRange(row.getMaxPrice());
+        }
+
+        void add(boolean productInStock, BigDecimal price) {
+            if (productInStock) {
+                inStock++;
+            } else {
+                outOfStock++;
+            }
+            if (price != null) {
+                priceSum = priceSum.add(price);
+                extendRange(price);
+            }
+        }
+
+        boolean remove(boolean productInStock, BigDecimal price) {
+            if (productInStock) {
+                inStock--;
+            } else {
+                outOfStock--;
+            }
+            if (price == null) {
+                return true;
+            }
+            priceSum = priceSum.subtract(price);
+            if (inStock + outOfStock == 0) {
+                minPrice = null;
+                maxPrice = null;
+                return true;
+            }
+            return minPrice != null && maxPrice != null
+                    && price.compareTo(minPrice) > 0 && price.compareTo(maxPrice) < 0;
+        }
+
+        private void extendRange(BigDecimal price) {
+            if (price == null) {
+                return;
+            }
+            if (minPrice == null || price.compareTo(minPrice) < 0) {
+                minPrice = price;
+            }
+            if (maxPrice == null || price.compareTo(maxPrice) > 0) {
+                maxPrice = price;
+            }
+        }
+
+        CategoryFacet toFacet(ProductCategory category) {
+            long total = inStock + outOfStock;
+            BigDecimal avgPrice = total == 0 ? null
+                    : priceSum.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP);
+            return new CategoryFacet(category, inStock, outOfStock, minPrice, maxPrice, avgPrice);
+        }
+    }
+}
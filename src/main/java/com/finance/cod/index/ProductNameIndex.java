@@ -0,0 +1,141 @@
+package com.finance.cod.index;
+
+import com.finance.cod.dto.NameSuggestion;
+import com.finance.cod.entity.Product;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * ProductNameIndex serves name autocomplete from memory: product names sorted by their case-folded
+ * name key, so all names with a given prefix form one contiguous range found by a logarithmic seek.
+ * Lookups take no locks. The index is built from the repository at startup and follows committed
+ * creates, renames and deletes.
+ */
+@Component
+@Slf4j
+public class ProductNameIndex {
+
+    private final ProductRepository productRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int fetchSize;
+
+    private volatile Names names = new Names();
+
+    // Changes seen while a rebuild runs; replayed onto the rebuilt index
+    private List<ProductChangedEvent> changesDuringRebuild;
+
+    public ProductNameIndex(ProductRepository productRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${cod.export.fetch-size:500}") int fetchSize) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        Names rebuilt = new Names();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                // Only ID and name: the index never needs the description or any other column
+                try (Stream<NameSuggestion> names = productRepository.streamAllNames(fetchSize)) {
+                    names.forEach(name -> rebuilt.put(name.getId(), name.getName()));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // Replaying is safe whether or not the scan saw a change: each event replaces the name by ID
+            changesDuringRebuild.forEach(rebuilt::apply);
+            changesDuringRebuild = null;
+            names = rebuilt;
+        }
+        log.info("Name index built: {} products", rebuilt.keysById.size());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+        names.apply(event);
+    }
+
+    /**
+     * Finds product names starting with the prefix, ignoring case.
+     *
+     * @param prefix The text typed so far.
+     * @param limit The maximum number of suggestions.
+     * @return Matching names in alphabetical order of their name key.
+     */
+    public List<NameSuggestion> suggest(String prefix, int limit) {
+        String from = Product.nameKeyOf(prefix);
+        // Every key starting with the prefix sorts between the prefix itself and prefix + the highest char
+        return names.byKey.subMap(from, true, from + Character.MAX_VALUE, true).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * The index data; written only while holding the enclosing lock, read without it.
+     */
+    private static class Names {
+
+        final ConcurrentSkipListMap<String, NameSuggestion> byKey = new ConcurrentSkipListMap<>();
+
+        // Needed to find the old entry on renames and deletes
+        final ConcurrentHashMap<Long, String> keysById = new ConcurrentHashMap<>();
+
+        void apply(ProductChangedEvent event) {
+            if (event.isDeleted()) {
+                remove(event.getId());
+            } else {
+                put(event.getId(), event.getAfter().getName());
+            }
+        }
+
+        void put(Long id, String name) {
+            remove(id);
+            String key = Product.nameKeyOf(name);
+            byKey.put(key, new NameSuggestion(id, name));
+            keysById.put(id, key);
+        }
+
+        void remove(Long id) {
+            String key = keysById.remove(id);
+            if (key == null) {
+                return;
+            }
+            // Events of different transactions can arrive out of commit order: the name may already
+            // belong to another product (A renamed away from "foo", B created as "foo" and applied first)
+            NameSuggestion current = byKey.get(key);
+            if (current != null && id.equals(current.getId())) {
+                byKey.remove(key, current);
+            }
+        }
+    }
+}
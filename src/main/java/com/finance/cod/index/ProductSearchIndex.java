@@ -0,0 +1,290 @@
+package com.finance.cod.index;
+
+import com.finance.cod.dto.SearchHit;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.event.ProductSnapshot;
+import com.finance.cod.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * ProductSearchIndex is an in-process inverted index over product names and descriptions,
+ * ranked with BM25. Name terms count double, so a match in the name outranks the same match
+ * in a description. Terms ending in '*' match every indexed term with that prefix.
+ * The index is built from the repository at startup and follows committed product changes.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Standard BM25 parameters: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 2;
+
+    // Keeps short prefixes like "a*" from scoring half the vocabulary; the most common terms win
+    private static final int MAX_PREFIX_EXPANSIONS = 200;
+
+    private final ProductRepository productRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int fetchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Terms terms = new Terms();
+
+    // Changes seen while a rebuild runs; replayed onto the rebuilt index
+    private List<ProductChangedEvent> changesDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${cod.export.fetch-size:500}") int fetchSize) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Terms rebuilt = new Terms();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductSnapshot> products = productRepository.streamAllDetached(fetchSize)
+                        .map(ProductSnapshot::of)) {
+                    products.forEach(rebuilt::add);
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // Replaying is safe whether or not the scan saw a change: each event replaces the product by ID
+            changesDuringRebuild.forEach(rebuilt::apply);
+            changesDuringRebuild = null;
+            terms = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built: {} products, {} terms", rebuilt.docs.size(), rebuilt.postings.size());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+            terms.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks products by how well their name and description match the query. Any query term may match.
+     *
+     * @param query Whitespace separated terms; a trailing '*' makes a term a prefix, e.g. "lap*".
+     * @param limit The maximum number of hits.
+     * @return The best hits, highest score first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return terms.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercases the text and splits it into letter/digit runs.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indexed state of one product: what is needed to remove it again and to score it.
+     */
+    private record Doc(String name, int length, Map<String, Integer> termFrequencies) {
+    }
+
+    /**
+     * The index data; guarded by the enclosing lock.
+     */
+    private static class Terms {
+
+        // Term -> product ID -> weighted term frequency; sorted for prefix lookups
+        final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+        final Map<Long, Doc> docs = new HashMap<>();
+
+        long totalLength;
+
+        void apply(ProductChangedEvent event) {
+            remove(event.getId());
+            if (event.getAfter() != null) {
+                add(event.getAfter());
+            }
+        }
+
+        void add(ProductSnapshot product) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : tokenize(product.getName())) {
+                frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+            }
+            for (String token : tokenize(product.getDescription())) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+            docs.put(product.getId(), new Doc(product.getName(), length, frequencies));
+            totalLength += length;
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .put(product.getId(), tf));
+        }
+
+        void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length();
+            for (String term : doc.termFrequencies().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        List<SearchHit> search(String query, int limit) {
+            if (docs.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / docs.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : expand(query)) {
+                Map<Long, Integer> posting = postings.get(term);
+                double idf = Math.log(1 + (docs.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, tf) -> {
+                    double norm = K1 * (1 - B + B * docs.get(id).length() / averageLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+
+            // Keep only the best 'limit' hits instead of sorting every match
+            Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, byScore);
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                best.add(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Map.Entry<Long, Double> entry = best.poll();
+                hits.add(new SearchHit(entry.getKey(), docs.get(entry.getKey()).name(), entry.getValue()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        }
+
+        /**
+         * Turns the query into the indexed terms to score, expanding prefix terms.
+         */
+        private Set<String> expand(String query) {
+            Set<String> expanded = new LinkedHashSet<>();
+            for (String part : query.trim().split("\\s+")) {
+                boolean prefix = part.endsWith("*");
+                List<String> tokens = tokenize(part);
+                for (int i = 0; i < tokens.size(); i++) {
+                    String token = tokens.get(i);
+                    if (prefix && i == tokens.size() - 1) {
+                        expandPrefix(token, expanded);
+                    } else if (postings.containsKey(token)) {
+                        expanded.add(token);
+                    }
+                }
+            }
+            return expanded;
+        }
+
+        /**
+         * Adds the MAX_PREFIX_EXPANSIONS terms starting with the prefix that occur in the most products.
+         * A bounded min-heap keeps this linear in the matching terms, so a short prefix does not sort
+         * a large part of the vocabulary while writers wait for the lock.
+         */
+        private void expandPrefix(String prefix, Set<String> expanded) {
+            // Weakest first: fewest products, then the alphabetically last term
+            Comparator<Map.Entry<String, Map<Long, Integer>>> byFrequency =
+                    Comparator.<Map.Entry<String, Map<Long, Integer>>>comparingInt(e -> e.getValue().size())
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+            PriorityQueue<Map.Entry<String, Map<Long, Integer>>> best =
+                    new PriorityQueue<>(MAX_PREFIX_EXPANSIONS + 1, byFrequency);
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                    : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).entrySet()) {
+                best.add(entry);
+                if (best.size() > MAX_PREFIX_EXPANSIONS) {
+                    best.poll();
+                }
+            }
+            best.forEach(entry -> expanded.add(entry.getKey()));
+        }
+    }
+}
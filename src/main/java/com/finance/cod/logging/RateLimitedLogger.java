@@ -0,0 +1,93 @@
+package com.finance.cod.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Passes at most a fixed number of INFO messages per interval to the delegate logger and drops the rest,
+ * so once the budget is spent a log call costs a counter increment instead of formatting and appender I/O.
+ * The number of dropped messages is logged when the next interval starts.
+ * Meant for messages logged on every request; audit-worthy messages should use the delegate directly.
+ */
+public class RateLimitedLogger {
+
+    private final Logger delegate;
+
+    private final int permitsPerInterval;
+
+    private final long intervalNanos;
+
+    private final AtomicLong intervalStart = new AtomicLong(System.nanoTime());
+
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+
+    private final LongAdder suppressed = new LongAdder();
+
+    public RateLimitedLogger(Logger delegate, int permitsPerInterval, Duration interval) {
+        if (permitsPerInterval < 1) {
+            throw new IllegalArgumentException("At least one message per interval must be allowed");
+        }
+        this.delegate = delegate;
+        this.permitsPerInterval = permitsPerInterval;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    // Fixed-arity overloads: a varargs call allocates its array even when the message is dropped
+
+    public void info(String format, Object arg) {
+        if (tryAcquire()) {
+            delegate.info(format, arg);
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (tryAcquire()) {
+            delegate.info(format, arg1, arg2);
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2, Object arg3) {
+        if (tryAcquire()) {
+            delegate.info(format, arg1, arg2, arg3);
+        }
+    }
+
+    public void info(String format, Object... args) {
+        if (tryAcquire()) {
+            delegate.info(format, args);
+        }
+    }
+
+    /**
+     * @return The number of messages dropped in the current interval.
+     */
+    public long suppressedCount() {
+        return suppressed.sum();
+    }
+
+    private boolean tryAcquire() {
+        if (!delegate.isInfoEnabled()) {
+            return false;
+        }
+        long start = intervalStart.get();
+        long now = System.nanoTime();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            permitsUsed.set(0);
+            long dropped = suppressed.sumThenReset();
+            if (dropped > 0) {
+                delegate.info("{} similar messages suppressed in the last {} ms",
+                        dropped, (now - start) / 1_000_000);
+            }
+        }
+        // Plain read first, so a spent budget does not contend on the counter
+        if (permitsUsed.get() < permitsPerInterval && permitsUsed.incrementAndGet() <= permitsPerInterval) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+}
@@ -1,20 +1,61 @@
 package com.finance.cod.repository;
 
+import com.finance.cod.dto.ProductStamp;
 import com.finance.cod.entity.Product;
 import com.finance.cod.entity.ProductCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
-    List<Product> findByNameIgnoreCase(String name);
+    // Existence-only lookup on the unique name_key index; never loads the entity
+    boolean existsByNameKey(String nameKey);
 
-    List<Product> findByCategoryAndInStockTrue(ProductCategory category);
+    // Which of the given name keys are already taken, as one indexed IN-list query
+    @Query("select p.nameKey from Product p where p.nameKey in :nameKeys")
+    List<String> findExistingNameKeys(@Param("nameKeys") Collection<String> nameKeys);
 
-    List<Product> findByPriceLessThanEqual(BigDecimal maxPrice);
+    // List queries take the result type, e.g. ProductSummary to skip the description or Product for everything
+    <T> List<T> findAllBy(Class<T> type);
+
+    // Results live in the Hibernate query cache until a write to the products table invalidates them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    <T> List<T> findByCategoryAndInStockTrue(ProductCategory category, Class<T> type);
+
+    // Slice instead of Page: callers only need to know if there is a next page, so no COUNT query is issued
+    <T> Slice<T> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable, Class<T> type);
+
+    <T> Slice<T> findByPriceGreaterThanEqual(BigDecimal minPrice, Pageable pageable, Class<T> type);
+
+    // Keyset pagination: seeks on the primary key index, so deep pages cost the same as the first
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit, Class<T> type);
+
+    // Projections for conditional GETs: read only what the ETag and Last-Modified headers need
+    Optional<ProductStamp> findStampById(Long id);
+
+    // Single DELETE statements returning the row count; deleteById would load each entity first.
+    // Like any bulk statement they evict the whole Product second-level cache region
+    @Modifying
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    int deleteProductsByIdIn(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,71 @@
+package com.finance.cod.repository;
+
+import com.finance.cod.dto.CategoryStockStats;
+import com.finance.cod.dto.NameSuggestion;
+import com.finance.cod.dto.ProductFilter;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Repository operations that need direct access to the EntityManager.
+ * Implemented by ProductRepositoryCustomImpl and exposed through ProductRepository.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Streams every product ordered by ID, detaching each entity once it has been handed out
+     * so the persistence context does not grow with the catalog.
+     * Must be called inside a transaction and the stream must be closed by the caller.
+     *
+     * @param fetchSize The JDBC fetch size hint, i.e. rows per round trip.
+     * @return A lazily populated stream of detached products.
+     */
+    Stream<Product> streamAllDetached(int fetchSize);
+
+    /**
+     * Streams the ID and name of every product ordered by ID, without reading the other columns.
+     * Must be called inside a transaction and the stream must be closed by the caller.
+     *
+     * @param fetchSize The JDBC fetch size hint, i.e. rows per round trip.
+     * @return A lazily populated stream of names.
+     */
+    Stream<NameSuggestion> streamAllNames(int fetchSize);
+
+    /**
+     * Multiplies the price of every matching product by the factor in a single UPDATE statement.
+     * Only the filters that are set end up in the WHERE clause, so the price and category indexes stay usable.
+     *
+     * @param factor The multiplier, e.g. 0.9 for a 10% discount.
+     * @param category Only products in this category, or null for any category.
+     * @param minPrice Only products priced at least this much, or null for no lower bound.
+     * @param maxPrice Only products priced at most this much, or null for no upper bound.
+     * @return The number of updated rows.
+     */
+    int multiplyPrices(BigDecimal factor, ProductCategory category, BigDecimal minPrice, BigDecimal maxPrice);
+
+    /**
+     * Selects only the given attributes of the matching products, so unselected columns are never read.
+     * Rows come back as maps from attribute name to value, in the order the attributes were given.
+     *
+     * @param fields Product attribute names, already validated by the caller.
+     * @param filter The rows to select.
+     * @param pageable The page and sort order, or Pageable.unpaged() for every matching row.
+     * @return The selected rows and whether another page follows.
+     */
+    Slice<Map<String, Object>> findFields(List<String> fields, ProductFilter filter, Pageable pageable);
+
+    /**
+     * Counts products and aggregates their prices per category and stock status.
+     * Reads the whole table, so it is only meant for periodic reconciliation, not for requests.
+     *
+     * @return One row per category and in-stock combination that has products.
+     */
+    List<CategoryStockStats> aggregateByCategoryAndStock();
+}
@@ -0,0 +1,143 @@
+package com.finance.cod.repository;
+
+import com.finance.cod.dto.CategoryStockStats;
+import com.finance.cod.dto.NameSuggestion;
+import com.finance.cod.dto.ProductFilter;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Product> streamAllDetached(int fetchSize) {
+        return entityManager.createQuery("select p from Product p order by p.id", Product.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                // Full scans must not fill the second-level cache and push out the hot entries
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    public Stream<NameSuggestion> streamAllNames(int fetchSize) {
+        // Constructor expression: plain DTOs, nothing enters the persistence context or the second-level cache
+        return entityManager.createQuery(
+                        "select new com.finance.cod.dto.NameSuggestion(p.id, p.name) from Product p order by p.id",
+                        NameSuggestion.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public int multiplyPrices(BigDecimal factor, ProductCategory category, BigDecimal minPrice, BigDecimal maxPrice) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (category != null) {
+            where.add(cb.equal(product.get("category"), category));
+        }
+        if (minPrice != null) {
+            where.add(cb.greaterThanOrEqualTo(product.get("price"), minPrice));
+        }
+        if (maxPrice != null) {
+            where.add(cb.lessThanOrEqualTo(product.get("price"), maxPrice));
+        }
+        // A literal keeps the factor's own scale; a parameter would be cast to the price column's scale of 2
+        update.set(product.<BigDecimal>get("price"), cb.prod(product.get("price"), cb.literal(factor)))
+                .set(product.<LocalDateTime>get("lastModifiedDate"), LocalDateTime.now())
+                .set(product.<Long>get("version"), cb.sum(product.get("version"), 1L))
+                .where(where.toArray(Predicate[]::new));
+
+        // Bulk statements bypass the persistence context: push pending changes first, drop stale copies after
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFields(List<String> fields, ProductFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.getId() != null) {
+            where.add(cb.equal(product.get("id"), filter.getId()));
+        }
+        if (filter.getAfterId() != null) {
+            where.add(cb.greaterThan(product.get("id"), filter.getAfterId()));
+        }
+        if (filter.getCategory() != null) {
+            where.add(cb.equal(product.get("category"), filter.getCategory()));
+        }
+        if (filter.getInStock() != null) {
+            where.add(cb.equal(product.get("inStock"), filter.getInStock()));
+        }
+        if (filter.getMinPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(product.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(product.get("price"), filter.getMaxPrice()));
+        }
+        List<Selection<?>> columns = fields.stream().<Selection<?>>map(f -> product.get(f).alias(f)).toList();
+        query.multiselect(columns)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            // Read one extra row to find out whether another page follows
+            typed.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typed.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<CategoryStockStats> aggregateByCategoryAndStock() {
+        // Declared here rather than in ProductRepository: it scans by design, so the startup plan check would flag it
+        return entityManager.createQuery("select new com.finance.cod.dto.CategoryStockStats("
+                        + "p.category, p.inStock, count(p), min(p.price), max(p.price), sum(p.price)) "
+                        + "from Product p group by p.category, p.inStock", CategoryStockStats.class)
+                .getResultList();
+    }
+}
@@ -1,17 +1,73 @@
 package com.finance.cod.service;
 
+import com.finance.cod.cache.HibernateCacheStatistics;
+import com.finance.cod.cache.ProductCache;
+import com.finance.cod.cache.SingleFlight;
+import com.finance.cod.dto.BatchCreateResult;
+import com.finance.cod.dto.BatchItemResult;
+import com.finance.cod.dto.CursorPage;
+import com.finance.cod.dto.NameSuggestion;
+import com.finance.cod.dto.ProductFacets;
+import com.finance.cod.dto.ProductFilter;
+import com.finance.cod.dto.ProductLookupResult;
+import com.finance.cod.dto.ProductStamp;
+import com.finance.cod.dto.ProductSummary;
+import com.finance.cod.dto.ProductUpdate;
+import com.finance.cod.dto.SearchHit;
+import com.finance.cod.dto.SlicePage;
 import com.finance.cod.entity.Product;
 import com.finance.cod.entity.ProductCategory;
+import com.finance.cod.event.CatalogChangedEvent;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.event.ProductSnapshot;
+import com.finance.cod.exception.DuplicateProductNameException;
 import com.finance.cod.exception.ProductNotFoundException;
+import com.finance.cod.exception.ProductVersionMismatchException;
+import com.finance.cod.index.CatalogVersion;
+import com.finance.cod.index.CategoryFacetIndex;
+import com.finance.cod.index.ProductNameIndex;
+import com.finance.cod.index.ProductSearchIndex;
+import com.finance.cod.logging.RateLimitedLogger;
 import com.finance.cod.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ProductService is responsible for handling business logic
@@ -21,10 +77,62 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor  // Lombok: generates a constructor for final fields (repository)
 @Slf4j                   // Lombok: provides a 'log' static logger
+// One cod.product.service timer per public method, with histogram buckets for latency SLOs
+@Timed(value = "cod.product.service", description = "ProductService operations", histogram = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
 
+    private final ProductCache productCache;
+
+    private final HibernateCacheStatistics hibernateCacheStatistics;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Write operations publish ProductChangedEvents; in-memory read models apply them after commit
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CategoryFacetIndex categoryFacetIndex;
+
+    private final CatalogVersion catalogVersion;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ProductNameIndex productNameIndex;
+
+    // Coalesces overlapping identical category queries, keyed by category and result type
+    private final SingleFlight<Map.Entry<ProductCategory, Class<?>>, List<?>> categoryQueries =
+            new SingleFlight<>("category");
+
+    // One result size meter per list operation, registered on first use; avoids a meter lookup per call
+    private final Map<String, DistributionSummary> resultSizes = new ConcurrentHashMap<>();
+
+    @Value("${cod.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${cod.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Value("${cod.update.max-attempts:5}")
+    private int maxUpdateAttempts;
+
+    // Per-request read messages, at most 20 per second; writes are still logged in full through 'log'
+    private static final RateLimitedLogger requestLog = new RateLimitedLogger(log, 20, Duration.ofSeconds(1));
+
+    // Only these columns are indexed or cheap enough to sort a price range by
+    private static final Set<String> PRICE_RANGE_SORT_PROPERTIES = Set.of("price", "createdDate");
+
+    // Attributes clients may pick with ?fields=; nameKey is internal and transientField is not a column
+    private static final List<String> SELECTABLE_FIELDS = List.of(
+            "id", "name", "description", "price", "inStock", "createdDate", "lastModifiedDate", "version", "category");
+
+    // Keeps IN lists to a size every database accepts and plans well
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+
     /**
      * Creates a new product or throws an exception if the product name already exists.
      *
@@ -36,41 +144,208 @@ public class ProductService {
         if (product == null) {
             throw new IllegalArgumentException("Product must not be null");
         }
-        if (!productRepository.findByNameIgnoreCase(product.getName()).isEmpty()) {
+        if (productRepository.existsByNameKey(Product.nameKeyOf(product.getName()))) {
             log.error("Product creation failed. Name '{}' already exists.", product.getName());
-            throw new RuntimeException("Product with name " + product.getName() + " already exists.");
+            throw new DuplicateProductNameException("Product with name " + product.getName() + " already exists.");
         }
 
-        log.info("Creating product: {}", product);
+        log.info("Creating product '{}' in category {}", product.getName(), product.getCategory());
         Product savedProduct = productRepository.save(product);
+        // The new ID may have been looked up (and cached as missing) before
+        productCache.evictOnCommit(savedProduct.getId());
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
         log.debug("Product created with ID: {}", savedProduct.getId());
         return savedProduct;
     }
 
+    /**
+     * Creates many products in one transaction. All products are validated in a single pass,
+     * duplicate names are checked with one IN-list query (chunked for very large batches),
+     * and the inserts are sent as JDBC batches. Invalid or duplicate products are rejected
+     * individually instead of failing the whole request.
+     *
+     * @param products The products to create.
+     * @return The number of created and rejected products plus a result per product, in request order.
+     */
+    @Transactional
+    public BatchCreateResult createProducts(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one product");
+        }
+        if (products.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchSize + " products");
+        }
+        log.info("Creating batch of {} products", products.size());
+
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();  // name key -> index of the first product using it
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product == null) {
+                results[i] = BatchItemResult.rejected(i, "Product must not be null");
+                continue;
+            }
+            Set<ConstraintViolation<Product>> violations = validator.validate(product);
+            if (!violations.isEmpty()) {
+                results[i] = BatchItemResult.rejected(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            String nameKey = Product.nameKeyOf(product.getName());
+            if (candidates.putIfAbsent(nameKey, i) != null) {
+                results[i] = BatchItemResult.rejected(i, "Duplicate name " + product.getName() + " within batch.");
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        List<String> nameKeys = new ArrayList<>(candidates.keySet());
+        for (int from = 0; from < nameKeys.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<String> chunk = nameKeys.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, nameKeys.size()));
+            existing.addAll(productRepository.findExistingNameKeys(chunk));
+        }
+
+        List<Product> toInsert = new ArrayList<>(candidates.size());
+        List<Integer> insertIndexes = new ArrayList<>(candidates.size());
+        for (int i : candidates.values()) {
+            Product product = products.get(i);
+            if (existing.contains(Product.nameKeyOf(product.getName()))) {
+                results[i] = BatchItemResult.rejected(i, "Product with name " + product.getName() + " already exists.");
+            } else {
+                // Always an insert: with an ID or version (e.g. rows re-imported from /stream) save would merge instead
+                product.setId(null);
+                product.setVersion(null);
+                toInsert.add(product);
+                insertIndexes.add(i);
+            }
+        }
+
+        // IDs come from the pooled sequence at persist time; the INSERTs themselves are batched at flush
+        List<Product> saved = productRepository.saveAll(toInsert);
+        List<Long> ids = new ArrayList<>(saved.size());
+        for (int k = 0; k < saved.size(); k++) {
+            Product product = saved.get(k);
+            int i = insertIndexes.get(k);
+            results[i] = BatchItemResult.created(i, product.getId());
+            ids.add(product.getId());
+            eventPublisher.publishEvent(ProductChangedEvent.created(product));
+        }
+        productCache.evictAllOnCommit(ids);
+
+        int rejected = products.size() - ids.size();
+        log.info("Batch create finished: {} created, {} rejected", ids.size(), rejected);
+        return new BatchCreateResult(ids.size(), rejected, List.of(results));
+    }
+
     /**
      * Retrieves all products from the database.
      * Could be used for list pages or admin dashboards.
      *
-     * @return A list of all product entities.
+     * @param type ProductSummary for list pages, or Product to include every column.
+     * @return A list of all products.
      */
     @Transactional(readOnly = true)
-    public List<Product> getAllProducts() {
-        log.info("Retrieving all products...");
-        List<Product> products = productRepository.findAll();
+    public <T> List<T> getAllProducts(Class<T> type) {
+        requestLog.info("Retrieving all {}", type.getSimpleName());
+        List<T> products = productRepository.findAllBy(type);
         log.debug("Number of products found: {}", products.size());
+        recordResultSize("getAllProducts", products.size());
         return products;
     }
 
+    /**
+     * Retrieves one page of products ordered by ID using keyset pagination.
+     * Only limit + 1 rows are read, whatever the position in the catalog.
+     *
+     * @param after The opaque cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of products to return.
+     * @param type ProductSummary for list pages, or Product to include every column.
+     * @return The page of products and the cursor for the next page, if any.
+     */
+    @Transactional(readOnly = true)
+    public <T> CursorPage<T> getProductsPage(String after, int limit, Class<T> type) {
+        long afterId = after == null ? 0L : decodeCursor(after);
+        log.debug("Fetching {} products after ID {}", limit, afterId);
+
+        // Read one extra row to find out whether another page follows
+        List<T> rows = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1), type);
+        recordResultSize("getProductsPage", Math.min(rows.size(), limit));
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, encodeCursor(idOf(items.get(limit - 1))));
+    }
+
+    /**
+     * Retrieves all products, reading only the requested columns.
+     *
+     * @param fields The product attributes to return; the ID is always included.
+     * @return One map per product from attribute name to value.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProductFields(List<String> fields) {
+        requestLog.info("Retrieving fields {} of all products", fields);
+        List<Map<String, Object>> products = productRepository.findFields(selectFields(fields),
+                ProductFilter.builder().build(), Pageable.unpaged()).getContent();
+        recordResultSize("getAllProductFields", products.size());
+        return products;
+    }
+
+    /**
+     * Same keyset pagination as {@link #getProductsPage}, reading only the requested columns.
+     *
+     * @param after The opaque cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of products to return.
+     * @param fields The product attributes to return; the ID is always included.
+     * @return The page of products and the cursor for the next page, if any.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getProductFieldsPage(String after, int limit, List<String> fields) {
+        long afterId = after == null ? 0L : decodeCursor(after);
+        Slice<Map<String, Object>> slice = productRepository.findFields(selectFields(fields),
+                ProductFilter.builder().afterId(afterId).build(), PageRequest.of(0, limit, Sort.by("id")));
+        List<Map<String, Object>> items = slice.getContent();
+        recordResultSize("getProductFieldsPage", items.size());
+        return new CursorPage<>(items, slice.hasNext() ? encodeCursor(idOf(items.get(items.size() - 1))) : null);
+    }
+
+    /**
+     * Hands every product, in ID order, to the given consumer while reading them from a
+     * database cursor. Entities are detached as they go, so memory stays flat however
+     * large the catalog is.
+     *
+     * @param sink Receives each product; typically writes it straight to the response.
+     * @return The number of products exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(Consumer<Product> sink) {
+        log.info("Exporting all products with fetch size {}", exportFetchSize);
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllDetached(exportFetchSize)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                sink.accept(product);
+                count++;
+            }
+        }
+        log.debug("Exported {} products", count);
+        recordResultSize("exportProducts", count);
+        return count;
+    }
+
     /**
      * Retrieves a product by its ID. Throws a custom exception if not found.
+     * Served from the ProductCache; only misses reach the database, so no
+     * transaction is opened here for cache hits. Concurrent misses for the
+     * same ID share a single query.
      *
      * @param id The ID of the desired product.
      * @return The product with the given ID, if found.
      */
-    @Transactional(readOnly = true)
     public Product getProductById(Long id) {
-        log.info("Fetching product with ID: {}", id);
-        return productRepository.findById(id)
+        requestLog.info("Fetching product with ID: {}", id);
+        return productCache.get(id, productRepository::findById)
                 .orElseThrow(() -> {
                     log.error("Product with ID {} not found.", id);
                     return new ProductNotFoundException("Product not found for ID " + id);
@@ -78,27 +353,178 @@ public class ProductService {
     }
 
     /**
-     * Retrieves products cheaper than or equal to a given max price.
+     * Retrieves many products by ID in one call. Cached products are served from the ProductCache
+     * and the rest are read with one IN-list query per chunk of IDs.
      *
-     * @param maxPrice The upper bound for product price.
-     * @return A list of products cheaper than or equal to maxPrice.
+     * @param ids The product IDs; duplicates are allowed and answered once per occurrence.
+     * @return One result per requested ID, in request order, marking IDs that do not exist as not found.
+     */
+    // Not @Transactional: when every ID is cached, no connection (or bulkhead permit) is taken at all;
+    // each findAllById chunk runs in its own read-only transaction
+    public List<ProductLookupResult> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one ID is required");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Cannot fetch more than " + maxBatchSize + " products at once");
+        }
+        requestLog.info("Fetching {} products by ID", ids.size());
+
+        Map<Long, Optional<Product>> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Optional<Product> cached = productCache.getIfCached(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        log.debug("{} of {} distinct IDs served from the cache", found.size(), found.size() + uncached.size());
+
+        // Not put into the cache: these reads are not coordinated with concurrent evictions like cache loads are
+        for (int from = 0; from < uncached.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = uncached.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, uncached.size()));
+            productRepository.findAllById(chunk).forEach(product -> found.put(product.getId(), Optional.of(product)));
+        }
+
+        List<ProductLookupResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            results.add(found.getOrDefault(id, Optional.empty())
+                    .map(ProductLookupResult::found)
+                    .orElseGet(() -> ProductLookupResult.notFound(id)));
+        }
+        recordResultSize("getProductsByIds", results.size());
+        return results;
+    }
+
+    /**
+     * Retrieves only the requested columns of a product. Bypasses the ProductCache,
+     * which holds whole products.
+     *
+     * @param id The ID of the desired product.
+     * @param fields The product attributes to return; the ID is always included.
+     * @return A map from attribute name to value.
      */
     @Transactional(readOnly = true)
-    public List<Product> getProductsByMaxPrice(BigDecimal maxPrice) {
-        log.info("Fetching products with price <= {}", maxPrice);
-        return productRepository.findByPriceLessThanEqual(maxPrice);
+    public Map<String, Object> getProductFields(Long id, List<String> fields) {
+        requestLog.info("Fetching fields {} of product with ID: {}", fields, id);
+        List<Map<String, Object>> rows = productRepository.findFields(selectFields(fields),
+                ProductFilter.builder().id(id).build(), Pageable.unpaged()).getContent();
+        if (rows.isEmpty()) {
+            throw new ProductNotFoundException("Product not found for ID " + id);
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Retrieves just the modification stamp of a product, to answer conditional GETs.
+     * Taken from the ProductCache when possible, otherwise from a projection query
+     * that does not load the product.
+     *
+     * @param id The ID of the product.
+     * @return The product's ID, version and last modification time.
+     */
+    public ProductStamp getProductStamp(Long id) {
+        Product cached = productCache.peek(id);
+        if (cached != null) {
+            return ProductStamp.of(cached);
+        }
+        return productRepository.findStampById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found for ID " + id));
+    }
+
+    /**
+     * Builds the entity tag of the product listing from the in-memory catalog version,
+     * to answer conditional GETs on the listing without touching the database.
+     *
+     * @param variant The representation served, e.g. the view or field selection.
+     * @return The current entity tag of that representation.
+     */
+    public String getCatalogETag(String variant) {
+        return catalogVersion.toETag(variant);
+    }
+
+    /**
+     * Retrieves one page of products within a price range.
+     * Only the requested page is read; no total count is computed.
+     *
+     * @param minPrice The inclusive lower bound for product price, or null for no lower bound.
+     * @param maxPrice The inclusive upper bound for product price, or null for no upper bound.
+     * @param pageable The page to read, sorted by price and/or createdDate.
+     * @param type ProductSummary for list pages, or Product to include every column.
+     * @return The products on the page and whether another page follows.
+     */
+    @Transactional(readOnly = true)
+    public <T> SlicePage<T> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable,
+                                                    Class<T> type) {
+        BigDecimal min = minPrice == null ? BigDecimal.ZERO : minPrice;
+        Pageable stable = priceRangePage(min, maxPrice, pageable);
+        requestLog.info("Fetching products with price between {} and {}, {}", min, maxPrice, pageable);
+        Slice<T> slice = maxPrice == null
+                ? productRepository.findByPriceGreaterThanEqual(min, stable, type)
+                : productRepository.findByPriceBetween(min, maxPrice, stable, type);
+        recordResultSize("getProductsByPriceRange", slice.getNumberOfElements());
+        return SlicePage.of(slice);
+    }
+
+    /**
+     * Same as {@link #getProductsByPriceRange}, reading only the requested columns.
+     *
+     * @param minPrice The lower bound (inclusive), or null for no lower bound.
+     * @param maxPrice The upper bound (inclusive), or null for no upper bound.
+     * @param pageable The page to read, sorted by price and/or createdDate.
+     * @param fields The product attributes to return; the ID is always included.
+     * @return The products on the page and whether another page follows.
+     */
+    @Transactional(readOnly = true)
+    public SlicePage<Map<String, Object>> getProductFieldsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                                      Pageable pageable, List<String> fields) {
+        BigDecimal min = minPrice == null ? BigDecimal.ZERO : minPrice;
+        Pageable stable = priceRangePage(min, maxPrice, pageable);
+        requestLog.info("Fetching fields {} of products with price between {} and {}, {}", fields, min, maxPrice,
+                pageable);
+        ProductFilter filter = ProductFilter.builder().minPrice(min).maxPrice(maxPrice).build();
+        Slice<Map<String, Object>> slice = productRepository.findFields(selectFields(fields), filter, stable);
+        recordResultSize("getProductFieldsByPriceRange", slice.getNumberOfElements());
+        return SlicePage.of(slice);
     }
 
     /**
      * Retrieves products by category if they are in stock.
+     * Identical calls that overlap share one query and one result list. Not transactional,
+     * so callers waiting on another call's query do not hold a connection meanwhile.
      *
      * @param category The category string (should match an enum name).
-     * @return A list of in-stock products for the given category.
+     * @param type ProductSummary for list pages, or Product to include every column.
+     * @return A list of in-stock products for the given category; shared, so it must not be modified.
      */
-    @Transactional(readOnly = true)
-    public List<Product> getInStockProductsByCategory(String category) {
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getInStockProductsByCategory(String category, Class<T> type) {
         ProductCategory categoryEnum = ProductCategory.valueOf(category.toUpperCase());
-        return productRepository.findByCategoryAndInStockTrue(categoryEnum);
+        List<T> products = (List<T>) categoryQueries.execute(Map.entry(categoryEnum, type),
+                () -> List.copyOf(productRepository.findByCategoryAndInStockTrue(categoryEnum, type)));
+        recordResultSize("getInStockProductsByCategory", products.size());
+        return products;
+    }
+
+    /**
+     * Retrieves in-stock products of a category, reading only the requested columns.
+     *
+     * @param category The category string (should match an enum name).
+     * @param fields The product attributes to return; the ID is always included.
+     * @return One map per in-stock product of the given category.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getInStockProductFieldsByCategory(String category, List<String> fields) {
+        ProductFilter filter = ProductFilter.builder()
+                .category(ProductCategory.valueOf(category.toUpperCase()))
+                .inStock(true)
+                .build();
+        List<Map<String, Object>> products = productRepository.findFields(selectFields(fields), filter,
+                Pageable.unpaged()).getContent();
+        recordResultSize("getInStockProductFieldsByCategory", products.size());
+        return products;
     }
 
     /**
@@ -106,34 +532,165 @@ public class ProductService {
      * Throws a ProductNotFoundException if the product does not exist.
      *
      * @param id The ID of the product to update.
-     * @param productUpdates The updated product object containing new field values.
+     * @param productUpdates The new field values; null fields are left unchanged.
      * @return The updated product.
      */
-    @Transactional
-    public Product updateProduct(Long id, Product productUpdates) {
+    public Product updateProduct(Long id, ProductUpdate productUpdates) {
+        return updateProduct(id, productUpdates, null);
+    }
+
+    /**
+     * Updates an existing product's fields, including optional discount application,
+     * with optimistic locking on the product's version.
+     * Throws a ProductNotFoundException if the product does not exist, a ProductVersionMismatchException
+     * if it is no longer at the expected version, and an OptimisticLockingFailureException if another
+     * update commits first. Discount-only updates commute with each other, so when no version is
+     * expected they are retried on a fresh copy of the product instead of failing.
+     *
+     * @param id The ID of the product to update.
+     * @param productUpdates The new field values; null fields are left unchanged.
+     * @param expectedVersion The version the client last saw (from If-Match), or null to skip the check.
+     * @return The updated product.
+     */
+    public Product updateProduct(Long id, ProductUpdate productUpdates, Long expectedVersion) {
         log.info("Updating product with ID: {}", id);
 
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
+        int maxAttempts = expectedVersion == null && isDiscountOnly(productUpdates) ? maxUpdateAttempts : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Each attempt runs in its own transaction, so a retry re-reads the committed product
+                return transactionTemplate.execute(status -> applyUpdate(id, productUpdates, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Update of product with ID {} lost to a concurrent update.", id);
+                    throw e;
+                }
+                log.debug("Concurrent update of product ID {}, retrying discount (attempt {})", id, attempt + 1);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private Product applyUpdate(Long id, ProductUpdate productUpdates, Long expectedVersion) {
+        Product existingProduct = findForUpdate(id, expectedVersion);
+        ProductSnapshot before = ProductSnapshot.of(existingProduct);
 
         // Example: only update if the incoming value is not null or different
         Optional.ofNullable(productUpdates.getName()).ifPresent(existingProduct::setName);
         Optional.ofNullable(productUpdates.getDescription()).ifPresent(existingProduct::setDescription);
         Optional.ofNullable(productUpdates.getPrice()).ifPresent(existingProduct::setPrice);
-
-        // If "true" or "false" is explicitly set in productUpdates
-        existingProduct.setInStock(productUpdates.isInStock());
+        // Only if "true" or "false" is explicitly set in productUpdates
+        Optional.ofNullable(productUpdates.getInStock()).ifPresent(existingProduct::setInStock);
 
         // Apply discount logic if 'transientField' includes some keyword (just an example)
-        if (productUpdates.getTransientField() != null
-                && productUpdates.getTransientField().contains("DISCOUNT")) {
+        if (hasDiscount(productUpdates)) {
             // parse discount from the transient field, e.g. "DISCOUNT:0.10"
             double discountValue = parseDiscount(productUpdates.getTransientField());
             existingProduct.applyDiscount(discountValue);
             log.debug("Discount of {} applied to product ID {}", discountValue, id);
         }
 
-        return productRepository.save(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, existingProduct));
+        // The entity is managed: dirty checking writes the changed columns at commit, no save() needed
+        return existingProduct;
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a product: fields present in the patch are replaced,
+     * null removes optional values, and absent fields are left alone. Together with dynamic updates
+     * only the changed columns are written.
+     * Throws a ProductNotFoundException if the product does not exist and a
+     * ProductVersionMismatchException if it is no longer at the expected version.
+     *
+     * @param id The ID of the product to patch.
+     * @param patch The merge patch; supported fields are name, description, price, inStock and category.
+     * @param expectedVersion The version the client last saw (from If-Match), or null to skip the check.
+     * @return The patched product.
+     */
+    @Transactional
+    public Product patchProduct(Long id, Map<String, Object> patch, Long expectedVersion) {
+        log.info("Patching product with ID: {} fields {}", id, patch.keySet());
+        Product existingProduct = findForUpdate(id, expectedVersion);
+        ProductSnapshot before = ProductSnapshot.of(existingProduct);
+
+        patch.forEach((field, value) -> {
+            switch (field) {
+                case "name" -> existingProduct.setName(patchValue(field, value, String.class));
+                case "description" -> existingProduct.setDescription(patchValue(field, value, String.class));
+                case "price" -> {
+                    Number price = patchValue(field, value, Number.class);
+                    existingProduct.setPrice(price == null ? null : new BigDecimal(price.toString()));
+                }
+                case "inStock" -> {
+                    Boolean inStock = patchValue(field, value, Boolean.class);
+                    if (inStock == null) {
+                        throw new IllegalArgumentException("Field inStock cannot be removed");
+                    }
+                    existingProduct.setInStock(inStock);
+                }
+                case "category" -> {
+                    String category = patchValue(field, value, String.class);
+                    existingProduct.setCategory(category == null ? null : ProductCategory.valueOf(category));
+                }
+                default -> throw new IllegalArgumentException("Field " + field + " cannot be patched");
+            }
+        });
+
+        Set<ConstraintViolation<Product>> violations = validator.validate(existingProduct);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, existingProduct));
+        return existingProduct;
+    }
+
+    /**
+     * Loads a product to modify it, checking the expected version, and evicts it from the cache on commit.
+     */
+    private Product findForUpdate(Long id, Long expectedVersion) {
+        Product existingProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
+        if (expectedVersion != null && !expectedVersion.equals(existingProduct.getVersion())) {
+            throw new ProductVersionMismatchException("Product with ID " + id + " is at version "
+                    + existingProduct.getVersion() + ", not " + expectedVersion);
+        }
+        productCache.evictOnCommit(id);
+        return existingProduct;
+    }
+
+    private static <T> T patchValue(String field, Object value, Class<T> type) {
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Field " + field + " must be a " + type.getSimpleName().toLowerCase());
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Applies a discount to every product matching the filters with a single set-based UPDATE,
+     * instead of loading and saving each product. The discount is bounds checked like
+     * Product.applyDiscount, and the product cache is cleared when the transaction commits.
+     *
+     * @param discount The discount between 0 and 1, e.g. 0.10 for 10% off.
+     * @param category Only discount products in this category, or null for any category.
+     * @param minPrice Only discount products priced at least this much, or null.
+     * @param maxPrice Only discount products priced at most this much, or null.
+     * @return The number of discounted products.
+     */
+    @Transactional
+    public int applyBulkDiscount(double discount, ProductCategory category, BigDecimal minPrice, BigDecimal maxPrice) {
+        Product.checkDiscount(discount);
+        if (category == null && minPrice == null && maxPrice == null) {
+            throw new IllegalArgumentException("At least one of category, minPrice or maxPrice is required");
+        }
+        log.info("Applying discount of {} to products in category {} priced between {} and {}",
+                discount, category, minPrice, maxPrice);
+
+        BigDecimal factor = BigDecimal.ONE.subtract(BigDecimal.valueOf(discount));
+        int updated = productRepository.multiplyPrices(factor, category, minPrice, maxPrice);
+        productCache.clearOnCommit();
+        eventPublisher.publishEvent(new CatalogChangedEvent("bulk discount of " + updated + " products"));
+        log.debug("Discount applied to {} products", updated);
+        return updated;
     }
 
     /**
@@ -145,15 +702,167 @@ public class ProductService {
     @Transactional
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
+        // The DELETE does not read the row; a cached copy still tells listeners what was removed
+        ProductSnapshot before = cachedSnapshot(id);
 
-        if (!productRepository.existsById(id)) {
+        // One DELETE statement; a zero row count means there was nothing to delete
+        if (productRepository.deleteProductById(id) == 0) {
             log.error("Cannot delete. Product with ID {} not found.", id);
             throw new ProductNotFoundException("Product with ID " + id + " not found.");
         }
-        productRepository.deleteById(id);
+        productCache.evictOnCommit(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id, before));
         log.debug("Product with ID {} deleted successfully.", id);
     }
 
+    /**
+     * Deletes many products by ID, one DELETE statement per chunk of IDs.
+     * IDs that do not exist are skipped rather than failing the whole request.
+     *
+     * @param ids The IDs of the products to delete.
+     * @return The number of products actually deleted.
+     */
+    @Transactional
+    public int deleteProducts(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one ID is required");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Cannot delete more than " + maxBatchSize + " products at once");
+        }
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        log.info("Deleting {} products", distinctIds.size());
+        List<ProductChangedEvent> events = distinctIds.stream()
+                .map(id -> ProductChangedEvent.deleted(id, cachedSnapshot(id)))
+                .toList();
+
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += IN_LIST_CHUNK_SIZE) {
+            deleted += productRepository.deleteProductsByIdIn(
+                    distinctIds.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinctIds.size())));
+        }
+        productCache.evictAllOnCommit(distinctIds);
+        // IDs that did not exist are published too; listeners treat them as no-ops or reconcile
+        events.forEach(eventPublisher::publishEvent);
+        log.debug("Deleted {} of {} requested products", deleted, distinctIds.size());
+        return deleted;
+    }
+
+    /**
+     * Searches product names and descriptions with the in-memory inverted index, ranked by relevance.
+     *
+     * @param query Keywords; a trailing '*' makes a keyword a prefix, e.g. "lap*".
+     * @param limit The maximum number of hits.
+     * @return The best matching products, most relevant first.
+     */
+    public List<SearchHit> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        log.debug("Searching products for '{}'", query);
+        List<SearchHit> hits = productSearchIndex.search(query, limit);
+        recordResultSize("searchProducts", hits.size());
+        return hits;
+    }
+
+    /**
+     * Suggests product names for type-ahead, served from the in-memory name index.
+     *
+     * @param prefix The beginning of a product name, in any case.
+     * @param limit The maximum number of suggestions.
+     * @return Matching names with their product IDs, in alphabetical order.
+     */
+    public List<NameSuggestion> suggestNames(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix must not be blank");
+        }
+        List<NameSuggestion> suggestions = productNameIndex.suggest(prefix, limit);
+        recordResultSize("suggestNames", suggestions.size());
+        return suggestions;
+    }
+
+    /**
+     * Retrieves product counts per category and stock status with min/max/avg prices,
+     * from in-memory counters rather than an aggregate query.
+     *
+     * @return The facets of every category.
+     */
+    public ProductFacets getFacets() {
+        return categoryFacetIndex.snapshot();
+    }
+
+    /**
+     * Collects runtime statistics for the product read path, e.g. for dashboards.
+     *
+     * @return Statistics keyed by component name.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("productCache", productCache.stats());
+        statistics.put("categoryQueries", categoryQueries.stats());
+        statistics.put("hibernateCache", hibernateCacheStatistics.stats());
+        return statistics;
+    }
+
+    @PostConstruct
+    void bindMetrics() {
+        categoryQueries.bindTo(meterRegistry);
+    }
+
+    /**
+     * Records how many products a list operation returned, as the cod.product.result.size distribution.
+     */
+    private void recordResultSize(String method, long size) {
+        DistributionSummary summary = resultSizes.get(method);
+        if (summary == null) {
+            summary = resultSizes.computeIfAbsent(method, this::resultSizeSummary);
+        }
+        summary.record(size);
+    }
+
+    private DistributionSummary resultSizeSummary(String method) {
+        return DistributionSummary.builder("cod.product.result.size")
+                .description("Products returned per list operation")
+                .baseUnit("products")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sleeps a short random time so that writers that just collided do not collide again.
+     */
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying update", e);
+        }
+    }
+
+    private ProductSnapshot cachedSnapshot(Long id) {
+        Product cached = productCache.peek(id);
+        return cached == null ? null : ProductSnapshot.of(cached);
+    }
+
+    private static boolean hasDiscount(ProductUpdate productUpdates) {
+        return productUpdates.getTransientField() != null
+                && productUpdates.getTransientField().contains("DISCOUNT");
+    }
+
+    /**
+     * A discount applied to the latest price gives the right result whatever ran before it,
+     * unlike overwriting name, description, price or stock with values based on a stale read.
+     */
+    private static boolean isDiscountOnly(ProductUpdate productUpdates) {
+        return hasDiscount(productUpdates)
+                && productUpdates.getName() == null
+                && productUpdates.getDescription() == null
+                && productUpdates.getPrice() == null
+                && productUpdates.getInStock() == null;
+    }
+
     /**
      * Example method illustrating more complex logic.
      * Could parse the discount from a string, e.g. 'DISCOUNT:0.1' => 0.1
@@ -167,4 +876,68 @@ public class ProductService {
         }
         return 0.0;
     }
+
+    /**
+     * Validates the price bounds and sort order of a price range query.
+     *
+     * @return The page with ID added as a tie-breaker, so rows with equal prices keep a stable order across pages.
+     */
+    private static Pageable priceRangePage(BigDecimal min, BigDecimal maxPrice, Pageable pageable) {
+        if (maxPrice != null && min.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Minimum price must not be greater than maximum price");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!PRICE_RANGE_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty()
+                        + ", allowed: " + PRICE_RANGE_SORT_PROPERTIES);
+            }
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+    }
+
+    /**
+     * Checks a ?fields= selection against the selectable attributes and puts the ID first,
+     * since cursors and clients rely on it.
+     */
+    private static List<String> selectFields(List<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', allowed: " + SELECTABLE_FIELDS);
+            }
+            selected.add(name);
+        }
+        return List.copyOf(selected);
+    }
+
+    private static Long idOf(Object row) {
+        if (row instanceof Map<?, ?> fields) {
+            return (Long) fields.get("id");
+        }
+        return row instanceof ProductSummary summary ? summary.getId() : ((Product) row).getId();
+    }
+
+    /**
+     * Cursors are the last seen ID, Base64 encoded so clients treat them as opaque tokens.
+     */
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(decoded);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
 }
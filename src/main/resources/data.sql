@@ -1,5 +1,5 @@
-INSERT INTO products (name, description, price, in_stock, created_date, category)
-VALUES ('Laptop', 'A cool gaming laptop', 1500.00, true, '2025-03-09T10:00:00', 'ELECTRONICS');
+INSERT INTO products (id, name, name_key, description, price, in_stock, created_date, last_modified_date, category, version)
+VALUES (NEXT VALUE FOR products_seq, 'Laptop', 'laptop', 'A cool gaming laptop', 1500.00, true, '2025-03-09T10:00:00', '2025-03-09T10:00:00', 'ELECTRONICS', 0);
 
-INSERT INTO products (name, description, price, in_stock, created_date, category)
-VALUES ('T-Shirt', 'A comfortable cotton t-shirt', 19.99, false, '2025-03-09T10:05:00', 'FASHION');
+INSERT INTO products (id, name, name_key, description, price, in_stock, created_date, last_modified_date, category, version)
+VALUES (NEXT VALUE FOR products_seq, 'T-Shirt', 't-shirt', 'A comfortable cotton t-shirt', 19.99, false, '2025-03-09T10:05:00', '2025-03-09T10:05:00', 'FASHION', 0);
@@ -0,0 +1,125 @@
+package com.finance.cod.cache;
+
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCacheTest {
+
+    private static final Long ID = 1L;
+
+    private final ProductCache cache = new ProductCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final Product product = Product.builder()
+            .id(ID)
+            .name("cached")
+            .price(BigDecimal.TEN)
+            .category(ProductCategory.BOOKS)
+            .build();
+
+    // Counts its calls and blocks until released, so other callers arrive while the load is in flight
+    private final Function<Long, Optional<Product>> blockingLoader = id -> {
+        loads.incrementAndGet();
+        loading.countDown();
+        await(release);
+        return Optional.of(product);
+    };
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        Future<Optional<Product>> first = executor.submit(() -> cache.get(ID, blockingLoader));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        List<Future<Optional<Product>>> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            others.add(executor.submit(() -> cache.get(ID, blockingLoader)));
+        }
+        awaitCollapsed(4);
+        release.countDown();
+
+        assertSame(product, first.get(5, TimeUnit.SECONDS).orElseThrow());
+        for (Future<Optional<Product>> other : others) {
+            assertSame(product, other.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(4L, cache.stats().get("collapsed"));
+    }
+
+    @Test
+    void evictionDuringLoadDiscardsItsResult() throws Exception {
+        Future<Optional<Product>> stale = executor.submit(() -> cache.get(ID, blockingLoader));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // No transaction is active, so the entry is evicted right away
+        cache.evictOnCommit(ID);
+        release.countDown();
+
+        assertSame(product, stale.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertNull(cache.getIfCached(ID));
+        cache.get(ID, blockingLoader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(ID, id -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        assertNull(cache.getIfCached(ID));
+        release.countDown();
+        assertSame(product, cache.get(ID, blockingLoader).orElseThrow());
+        assertEquals(2, loads.get());
+    }
+
+    private void awaitCollapsed(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Long.valueOf(expected).equals(cache.stats().get("collapsed"))) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not join the in-flight load");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
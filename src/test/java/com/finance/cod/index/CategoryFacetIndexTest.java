@@ -0,0 +1,142 @@
+package com.finance.cod.index;
+
+import com.finance.cod.dto.CategoryFacet;
+import com.finance.cod.dto.CategoryStockStats;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.event.ProductSnapshot;
+import com.finance.cod.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryFacetIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    // Long enough that reconcileIfDue only queries when the index is dirty
+    private final CategoryFacetIndex index = new CategoryFacetIndex(productRepository, Duration.ofHours(1));
+
+    @BeforeEach
+    void reconcileEmptyCatalog() {
+        when(productRepository.aggregateByCategoryAndStock()).thenReturn(List.of());
+        index.reconcile();
+    }
+
+    @Test
+    void countsFollowCreateUpdateAndDelete() {
+        Product cheap = product(1L, true, "10.00");
+        Product dear = product(2L, false, "20.00");
+        index.onProductChanged(ProductChangedEvent.created(cheap));
+        index.onProductChanged(ProductChangedEvent.created(dear));
+
+        Product restocked = product(2L, true, "20.00");
+        index.onProductChanged(ProductChangedEvent.updated(ProductSnapshot.of(dear), restocked));
+        assertCounts(2, 0);
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L, ProductSnapshot.of(cheap)));
+        assertCounts(1, 0);
+        assertEquals(0, books().getAvgPrice().compareTo(new BigDecimal("20.00")));
+    }
+
+    @Test
+    void removingAPriceInsideTheRangeKeepsTheIndexClean() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, true, "10.00")));
+        index.onProductChanged(ProductChangedEvent.created(product(2L, true, "20.00")));
+        Product middle = product(3L, true, "15.00");
+        index.onProductChanged(ProductChangedEvent.created(middle));
+
+        index.onProductChanged(ProductChangedEvent.deleted(3L, ProductSnapshot.of(middle)));
+        index.reconcileIfDue();
+
+        verify(productRepository, times(1)).aggregateByCategoryAndStock();
+        assertEquals(0, books().getMinPrice().compareTo(new BigDecimal("10.00")));
+        assertEquals(0, books().getMaxPrice().compareTo(new BigDecimal("20.00")));
+    }
+
+    @Test
+    void removingTheCurrentMinimumMarksTheIndexDirty() {
+        Product cheapest = product(1L, true, "10.00");
+        index.onProductChanged(ProductChangedEvent.created(cheapest));
+        index.onProductChanged(ProductChangedEvent.created(product(2L, true, "20.00")));
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L, ProductSnapshot.of(cheapest)));
+        index.reconcileIfDue();
+
+        verify(productRepository, times(2)).aggregateByCategoryAndStock();
+    }
+
+    @Test
+    void removingTheCurrentMaximumMarksTheIndexDirty() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, true, "10.00")));
+        Product dearest = product(2L, true, "20.00");
+        index.onProductChanged(ProductChangedEvent.created(dearest));
+
+        index.onProductChanged(ProductChangedEvent.updated(ProductSnapshot.of(dearest), product(2L, true, "15.00")));
+        index.reconcileIfDue();
+
+        verify(productRepository, times(2)).aggregateByCategoryAndStock();
+    }
+
+    @Test
+    void deleteWithoutSnapshotMarksTheIndexDirty() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, true, "10.00")));
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L, null));
+        index.reconcileIfDue();
+
+        verify(productRepository, times(2)).aggregateByCategoryAndStock();
+    }
+
+    @Test
+    void changesCommittedDuringReconcileAreReplayedOntoItsResult() {
+        CategoryStockStats row = new CategoryStockStats(ProductCategory.BOOKS, true, 1,
+                new BigDecimal("5.00"), new BigDecimal("5.00"), new BigDecimal("5.00"));
+        when(productRepository.aggregateByCategoryAndStock()).thenAnswer(invocation -> {
+            // Committed after the aggregate query started
+            index.onProductChanged(ProductChangedEvent.created(product(2L, false, "7.00")));
+            return List.of(row);
+        });
+
+        index.reconcile();
+
+        assertCounts(1, 1);
+        assertEquals(0, books().getMaxPrice().compareTo(new BigDecimal("7.00")));
+        // The replayed change may already be in the result, so the next check reconciles again
+        index.reconcileIfDue();
+        verify(productRepository, times(3)).aggregateByCategoryAndStock();
+    }
+
+    private void assertCounts(long inStock, long outOfStock) {
+        CategoryFacet books = books();
+        assertEquals(inStock, books.getInStock());
+        assertEquals(outOfStock, books.getOutOfStock());
+    }
+
+    private CategoryFacet books() {
+        return index.snapshot().getCategories().stream()
+                .filter(facet -> facet.getCategory() == ProductCategory.BOOKS)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Product product(Long id, boolean inStock, String price) {
+        return Product.builder()
+                .id(id)
+                .name("product-" + id)
+                .price(new BigDecimal(price))
+                .inStock(inStock)
+                .category(ProductCategory.BOOKS)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.finance.cod.index;
+
+import com.finance.cod.dto.NameSuggestion;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.event.ProductSnapshot;
+import com.finance.cod.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ProductNameIndexTest {
+
+    private final ProductNameIndex index = new ProductNameIndex(
+            mock(ProductRepository.class), mock(PlatformTransactionManager.class), 500);
+
+    @Test
+    void renameAppliedAfterNewOwnerOfTheNameKeepsTheNewOwner() {
+        Product a = product(1L, "foo");
+        index.onProductChanged(ProductChangedEvent.created(a));
+        ProductSnapshot aBefore = ProductSnapshot.of(a);
+
+        // B takes "foo" after A was renamed to "bar", but B's event is applied first
+        index.onProductChanged(ProductChangedEvent.created(product(2L, "foo")));
+        index.onProductChanged(ProductChangedEvent.updated(aBefore, product(1L, "bar")));
+
+        assertEquals(List.of(new NameSuggestion(2L, "foo")), index.suggest("fo", 10));
+        assertEquals(List.of(new NameSuggestion(1L, "bar")), index.suggest("ba", 10));
+    }
+
+    @Test
+    void deleteRemovesOnlyTheProductsOwnName() {
+        index.onProductChanged(ProductChangedEvent.created(product(1L, "foo")));
+        index.onProductChanged(ProductChangedEvent.created(product(2L, "food")));
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L, null));
+
+        assertEquals(List.of(new NameSuggestion(2L, "food")), index.suggest("fo", 10));
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .price(BigDecimal.ONE)
+                .category(ProductCategory.BOOKS)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.finance.cod.index;
+
+import com.finance.cod.dto.SearchHit;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import com.finance.cod.event.ProductChangedEvent;
+import com.finance.cod.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex(
+            mock(ProductRepository.class), mock(PlatformTransactionManager.class), 500);
+
+    @Test
+    void prefixExpandsToTheMostFrequentTerms() {
+        // 200 terms in two products each, and one rarer term that falls outside the expansion limit
+        StringJoiner common = new StringJoiner(" ");
+        for (char first = 'a'; first < 'a' + 8; first++) {
+            for (char second = 'a'; second < 'a' + 25; second++) {
+                common.add("t" + first + second);
+            }
+        }
+        index.onProductChanged(ProductChangedEvent.created(product(1L, "first", common.toString())));
+        index.onProductChanged(ProductChangedEvent.created(product(2L, "second", common.toString())));
+        index.onProductChanged(ProductChangedEvent.created(product(3L, "third", "tzz")));
+
+        List<Long> ids = index.search("t*", 10).stream().map(SearchHit::getId).sorted().toList();
+
+        assertEquals(List.of(1L, 2L), ids);
+        assertEquals(1, index.search("tz*", 10).size());
+    }
+
+    private static Product product(Long id, String name, String description) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(BigDecimal.ONE)
+                .category(ProductCategory.BOOKS)
+                .build();
+    }
+}
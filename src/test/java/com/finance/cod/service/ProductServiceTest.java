@@ -0,0 +1,228 @@
+package com.finance.cod.service;
+
+import com.finance.cod.config.SqlCaptureInspector;
+import com.finance.cod.dto.BatchCreateResult;
+import com.finance.cod.dto.BatchItemResult;
+import com.finance.cod.dto.ProductUpdate;
+import com.finance.cod.entity.Product;
+import com.finance.cod.entity.ProductCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SqlCaptureInspector sqlCaptureInspector;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void createProductsInsertsItemsThatCarryIdAndVersion() {
+        // As exported by /stream: ID and version of an existing row
+        Product exported = newProduct("exported");
+        exported.setId(1L);
+        exported.setVersion(0L);
+        Product fresh = newProduct("fresh");
+
+        BatchCreateResult result = productService.createProducts(List.of(exported, fresh));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getRejected());
+        for (BatchItemResult item : result.getItems()) {
+            assertEquals(BatchItemResult.Status.CREATED, item.getStatus());
+            assertNotNull(item.getId());
+        }
+        Product created = productService.getProductById(result.getItems().get(0).getId());
+        assertEquals(exported.getName(), created.getName());
+    }
+
+    @Test
+    void retriedDiscountsKeepConcurrentStockChange() throws Exception {
+        Product product = newProduct("discounted");
+        product.setInStock(false);
+        Long id = productService.createProduct(product).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> discounts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 16; i++) {
+                discounts.add(executor.submit(() -> {
+                    start.await();
+                    ProductUpdate updates = new ProductUpdate();
+                    updates.setTransientField("DISCOUNT:0.01");
+                    return productService.updateProduct(id, updates);
+                }));
+            }
+            Future<?> restock = executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        ProductUpdate updates = new ProductUpdate();
+                        updates.setInStock(true);
+                        return productService.updateProduct(id, updates);
+                    } catch (OptimisticLockingFailureException e) {
+                        if (attempt >= 50) {
+                            throw e;
+                        }
+                    }
+                }
+            });
+            start.countDown();
+            restock.get();
+            for (Future<?> discount : discounts) {
+                try {
+                    discount.get();
+                } catch (Exception e) {
+                    // A discount may still lose all its attempts; only the stock flag matters here
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Product updated = productService.getProductById(id);
+        assertTrue(updated.isInStock());
+        assertTrue(updated.getPrice().compareTo(new BigDecimal("10.00")) < 0);
+    }
+
+    @Test
+    void discountWithStockChangeAppliesBoth() {
+        Product product = newProduct("restocked");
+        product.setInStock(false);
+        Long id = productService.createProduct(product).getId();
+
+        ProductUpdate updates = new ProductUpdate();
+        updates.setInStock(true);
+        updates.setTransientField("DISCOUNT:0.10");
+        productService.updateProduct(id, updates);
+
+        Product updated = productService.getProductById(id);
+        assertTrue(updated.isInStock());
+        assertEquals(0, updated.getPrice().compareTo(new BigDecimal("9.00")));
+    }
+
+    @Test
+    void discountAloneKeepsStockFlag() {
+        Long id = productService.createProduct(newProduct("discount-only")).getId();
+
+        ProductUpdate updates = new ProductUpdate();
+        updates.setTransientField("DISCOUNT:0.10");
+        productService.updateProduct(id, updates);
+
+        assertTrue(productService.getProductById(id).isInStock());
+    }
+
+    @Test
+    void patchLeavesAbsentFieldsUnchanged() {
+        Product product = newProduct("patched");
+        product.setDescription("Original description");
+        Long id = productService.createProduct(product).getId();
+
+        productService.patchProduct(id, Map.of("price", new BigDecimal("12.50")), null);
+
+        Product patched = productService.getProductById(id);
+        assertEquals(0, patched.getPrice().compareTo(new BigDecimal("12.50")));
+        assertEquals(product.getName(), patched.getName());
+        assertEquals("Original description", patched.getDescription());
+        assertTrue(patched.isInStock());
+        assertEquals(ProductCategory.BOOKS, patched.getCategory());
+    }
+
+    @Test
+    void patchWithNullClearsDescription() {
+        Product product = newProduct("cleared");
+        product.setDescription("Soon gone");
+        Long id = productService.createProduct(product).getId();
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("description", null);
+        productService.patchProduct(id, patch, null);
+
+        assertNull(productService.getProductById(id).getDescription());
+    }
+
+    @Test
+    void patchRejectsRemovingInStock() {
+        Long id = productService.createProduct(newProduct("stock-removed")).getId();
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("inStock", null);
+
+        assertThrows(IllegalArgumentException.class, () -> productService.patchProduct(id, patch, null));
+        assertTrue(productService.getProductById(id).isInStock());
+    }
+
+    @Test
+    void patchRejectsUnknownFields() {
+        Long id = productService.createProduct(newProduct("unknown-field")).getId();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.patchProduct(id, Map.of("colour", "red"), null));
+    }
+
+    @Test
+    void pricePatchLeavesDescriptionOutOfTheUpdate() {
+        Product product = newProduct("price-only");
+        product.setDescription("Long product description. ".repeat(100));
+        Long id = productService.createProduct(product).getId();
+
+        // Capture the UPDATE the flush sends; capturing aborts it, so the transaction is rolled back
+        String update = new TransactionTemplate(transactionManager).execute(status -> {
+            productService.patchProduct(id, Map.of("price", new BigDecimal("11.00")), null);
+            status.setRollbackOnly();
+            return sqlCaptureInspector.capture(() -> {
+                entityManager.flush();
+                return null;
+            });
+        });
+
+        assertNotNull(update);
+        String sql = update.toLowerCase(Locale.ROOT);
+        assertTrue(sql.startsWith("update products"), sql);
+        assertTrue(sql.contains("price"), sql);
+        assertFalse(sql.contains("description"), sql);
+    }
+
+    static Product newProduct(String prefix) {
+        return Product.builder()
+                .name(prefix + "-" + UUID.randomUUID())
+                .price(new BigDecimal("10.00"))
+                .inStock(true)
+                .category(ProductCategory.BOOKS)
+                .build();
+    }
+}